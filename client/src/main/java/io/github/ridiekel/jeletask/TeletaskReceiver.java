@@ -1,12 +1,14 @@
 package io.github.ridiekel.jeletask;
 
 import io.github.ridiekel.jeletask.client.builder.composer.MessageHandler;
+import io.github.ridiekel.jeletask.client.builder.message.FrameDecoder;
+import io.github.ridiekel.jeletask.client.transport.Transport;
 import io.github.ridiekel.jeletask.model.spec.CentralUnit;
 
-import java.io.InputStream;
-
 public interface TeletaskReceiver {
-    InputStream getInputStream();
+    Transport getTransport();
+
+    FrameDecoder getFrameDecoder();
 
     MessageHandler getMessageHandler();
 
@@ -0,0 +1,43 @@
+package io.github.ridiekel.jeletask.client;
+
+import io.github.ridiekel.jeletask.model.spec.ComponentSpec;
+import io.github.ridiekel.jeletask.model.spec.Function;
+
+/**
+ * The state of a component at the moment a request completed.
+ */
+public final class ComponentState {
+    private final Function function;
+    private final int number;
+    private final String state;
+
+    public ComponentState(Function function, int number, String state) {
+        this.function = function;
+        this.number = number;
+        this.state = state;
+    }
+
+    public static ComponentState of(ComponentSpec component) {
+        return new ComponentState(component.getFunction(), component.getNumber(), component.getState());
+    }
+
+    public Function getFunction() {
+        return this.function;
+    }
+
+    public int getNumber() {
+        return this.number;
+    }
+
+    public String getState() {
+        return this.state;
+    }
+
+    @Override
+    public String toString() {
+        return "ComponentState{" + "function=" + this.function +
+                ", number=" + this.number +
+                ", state=" + this.state +
+                '}';
+    }
+}
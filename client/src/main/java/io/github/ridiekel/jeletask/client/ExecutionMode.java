@@ -0,0 +1,50 @@
+package io.github.ridiekel.jeletask.client;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * How a client runs the work of its io service.
+ * <p>
+ * Gets and sets do not use the io service, they wait for their acknowledge and event on futures.
+ * The mode only affects the group gets of {@link TeletaskClient#groupGet()}, the keep alive and the reconnect after an acknowledge timeout.
+ * The group gets at (re)start run next to each other in both modes, connecting in {@link TeletaskClient#startAsync()} has a thread of its own.
+ * Writes to the connection are serialized by the client in both modes.
+ * ExecutionModeTest measures {@link TeletaskClient#groupGet()} of a MICROS in both modes, the virtual threads only on Java 21 or later.
+ */
+public enum ExecutionMode {
+    /**
+     * One platform thread per client, running the tasks one after the other.
+     */
+    PLATFORM_THREAD(name -> Executors.newSingleThreadExecutor(r -> new Thread(r, name))),
+    /**
+     * Every task gets its own virtual thread, so a blocking wait does not hold a platform thread.
+     * Needs Java 21 or later.
+     */
+    VIRTUAL_THREADS(name -> newVirtualThreadPerTaskExecutor());
+
+    private final Function<String, ExecutorService> factory;
+
+    ExecutionMode(Function<String, ExecutorService> factory) {
+        this.factory = factory;
+    }
+
+    public ExecutorService createExecutor(String name) {
+        return this.factory.apply(name);
+    }
+
+    /**
+     * The library is compiled for Java 11, so the virtual thread executor is looked up when it is needed.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Virtual threads need Java 21 or later, running on Java " + System.getProperty("java.version"), e);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Could not create a virtual thread executor", e);
+        }
+    }
+}
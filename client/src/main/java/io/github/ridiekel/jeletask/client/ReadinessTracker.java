@@ -0,0 +1,74 @@
+package io.github.ridiekel.jeletask.client;
+
+import io.github.ridiekel.jeletask.model.spec.ComponentSpec;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Completes a future as soon as every component has a known state, which is a state that is not null and not stale,
+ * or was given up on.
+ * <p>
+ * Components are checked when an event for them arrives.
+ * States can also be set without an event (e.g. the default state of a get), a {@link #sweep()} picks those up.
+ */
+final class ReadinessTracker {
+    private final Set<ComponentSpec> unknown = ConcurrentHashMap.newKeySet();
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+
+    ReadinessTracker(Collection<? extends ComponentSpec> components) {
+        for (ComponentSpec component : components) {
+            if (!isKnown(component)) {
+                this.unknown.add(component);
+            }
+        }
+        this.completeWhenDone();
+    }
+
+    void stateChanged(ComponentSpec component) {
+        if (isKnown(component) && this.unknown.remove(component)) {
+            this.completeWhenDone();
+        }
+    }
+
+    /**
+     * The central unit did not send the state of the component, it is no longer waited for.
+     */
+    void gaveUp(ComponentSpec component) {
+        if (this.unknown.remove(component)) {
+            this.completeWhenDone();
+        }
+    }
+
+    void sweep() {
+        this.unknown.removeIf(ReadinessTracker::isKnown);
+        this.completeWhenDone();
+    }
+
+    int getUnknownCount() {
+        return this.unknown.size();
+    }
+
+    /**
+     * The future is cancelled, so it never completes normally anymore.
+     */
+    void cancel() {
+        this.ready.cancel(false);
+    }
+
+    CompletableFuture<Void> getReady() {
+        return this.ready;
+    }
+
+    private void completeWhenDone() {
+        if (this.unknown.isEmpty()) {
+            this.ready.complete(null);
+        }
+    }
+
+    private static boolean isKnown(ComponentSpec component) {
+        return component.getState() != null && !component.isStale();
+    }
+}
@@ -5,19 +5,61 @@ import io.github.ridiekel.jeletask.model.spec.CentralUnit;
 import io.github.ridiekel.jeletask.model.spec.ComponentSpec;
 import io.github.ridiekel.jeletask.model.spec.Function;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * The futures returned by this client are completed by the threads of the client itself.
+ * Work that blocks or takes a while should be moved to an executor of your own (e.g. using the async variants of {@link CompletableFuture}).
+ */
 public interface TeletaskClient {
     void registerStateChangeListener(StateChangeListener listener);
 
-    void set(ComponentSpec component, String state, SuccessConsumer onSuccess, FailureConsumer onFailed);
+    /**
+     * @return A future that completes when the central unit confirmed the new state, or fails when the set was not acknowledged in time.
+     */
+    CompletableFuture<ComponentState> set(ComponentSpec component, String state);
+
+    CompletableFuture<ComponentState> set(Function function, int number, String state);
+
+    /**
+     * @return A future that completes when the central unit sent the state of the component, or fails when the get was not acknowledged in time.
+     */
+    CompletableFuture<ComponentState> get(Function function, int number);
+
+    CompletableFuture<ComponentState> get(ComponentSpec component);
 
-    void set(Function function, int number, String state, SuccessConsumer onSucccess, FailureConsumer onFailed);
+    default void set(ComponentSpec component, String state, SuccessConsumer onSuccess, FailureConsumer onFailed) {
+        this.whenComplete(component.getFunction(), component.getNumber(), this.set(component, state), onSuccess, onFailed);
+    }
 
-    void get(Function function, int number, SuccessConsumer onSucccess, FailureConsumer onFailed);
+    default void set(Function function, int number, String state, SuccessConsumer onSucccess, FailureConsumer onFailed) {
+        this.whenComplete(function, number, this.set(function, number, state), onSucccess, onFailed);
+    }
 
-    void get(ComponentSpec component, SuccessConsumer onSuccess, FailureConsumer onFailed);
+    default void get(Function function, int number, SuccessConsumer onSucccess, FailureConsumer onFailed) {
+        this.whenComplete(function, number, this.get(function, number), onSucccess, onFailed);
+    }
+
+    default void get(ComponentSpec component, SuccessConsumer onSuccess, FailureConsumer onFailed) {
+        this.whenComplete(component.getFunction(), component.getNumber(), this.get(component), onSuccess, onFailed);
+    }
 
     TeletaskClient start();
 
+    /**
+     * Starts without waiting for the connection.
+     * Finding the components without a known state, connecting, registering for events and getting the states of all functions overlap.
+     *
+     * @return The same future as {@link #whenReady()}.
+     */
+    CompletableFuture<TeletaskClient> startAsync();
+
+    /**
+     * @return A future that completes when every component has a known state after the last (re)start, or fails when the client could not start.
+     */
+    CompletableFuture<TeletaskClient> whenReady();
+
     void restart();
 
     void stop();
@@ -25,4 +67,15 @@ public interface TeletaskClient {
     CentralUnit getConfig();
 
     void groupGet();
+
+    private void whenComplete(Function function, int number, CompletableFuture<ComponentState> future, SuccessConsumer onSuccess, FailureConsumer onFailed) {
+        future.whenComplete((s, e) -> {
+            if (e == null) {
+                onSuccess.execute(s.getFunction(), s.getNumber(), s.getState());
+            } else {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                onFailed.execute(function, number, this.getConfig().getComponent(function, number).getState(), cause instanceof Exception ? (Exception) cause : new CompletionException(cause));
+            }
+        });
+    }
 }
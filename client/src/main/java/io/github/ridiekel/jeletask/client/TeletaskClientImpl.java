@@ -3,45 +3,56 @@ package io.github.ridiekel.jeletask.client;
 import io.github.ridiekel.jeletask.TeletaskReceiver;
 import io.github.ridiekel.jeletask.client.builder.composer.MessageHandler;
 import io.github.ridiekel.jeletask.client.builder.composer.MessageHandlerFactory;
-import io.github.ridiekel.jeletask.client.builder.message.MessageUtilities;
-import io.github.ridiekel.jeletask.client.builder.message.executor.MessageExecutor;
-import io.github.ridiekel.jeletask.client.builder.message.messages.AcknowledgeException;
+import io.github.ridiekel.jeletask.client.builder.message.EventFrame;
+import io.github.ridiekel.jeletask.client.builder.message.FrameDecoder;
+import io.github.ridiekel.jeletask.client.builder.message.FrameReceiver;
+import io.github.ridiekel.jeletask.client.builder.message.SetFrameCache;
+import io.github.ridiekel.jeletask.client.builder.message.executor.GetCoalescer;
+import io.github.ridiekel.jeletask.client.builder.message.executor.InFlightQueue;
+import io.github.ridiekel.jeletask.client.builder.message.executor.StateChangeWaiters;
 import io.github.ridiekel.jeletask.client.builder.message.messages.MessageSupport;
 import io.github.ridiekel.jeletask.client.builder.message.messages.impl.EventMessage;
 import io.github.ridiekel.jeletask.client.builder.message.messages.impl.GetMessage;
+import io.github.ridiekel.jeletask.client.builder.message.messages.impl.GroupGetMessage;
 import io.github.ridiekel.jeletask.client.builder.message.messages.impl.LogMessage;
 import io.github.ridiekel.jeletask.client.builder.message.messages.impl.SetMessage;
+import io.github.ridiekel.jeletask.client.builder.message.strategy.GroupGetStrategy;
 import io.github.ridiekel.jeletask.client.builder.message.strategy.KeepAliveStrategy;
 import io.github.ridiekel.jeletask.client.listener.StateChangeListener;
+import io.github.ridiekel.jeletask.client.metrics.ClientMetrics;
+import io.github.ridiekel.jeletask.client.metrics.StartupTimings;
+import io.github.ridiekel.jeletask.client.transport.EventLoop;
+import io.github.ridiekel.jeletask.client.transport.NioTransport;
+import io.github.ridiekel.jeletask.client.transport.OutboundQueue;
+import io.github.ridiekel.jeletask.client.transport.Transport;
 import io.github.ridiekel.jeletask.model.spec.CentralUnit;
+import io.github.ridiekel.jeletask.model.spec.Command;
 import io.github.ridiekel.jeletask.model.spec.ComponentSpec;
 import io.github.ridiekel.jeletask.model.spec.Function;
+import io.github.ridiekel.jeletask.model.spec.state.StateSnapshot;
 import org.awaitility.Awaitility;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.Socket;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.function.BiConsumer;
-import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 
 public final class TeletaskClientImpl implements TeletaskReceiver, TeletaskClient {
@@ -50,24 +61,72 @@ public final class TeletaskClientImpl implements TeletaskReceiver, TeletaskClien
      */
     private static final Logger LOG = LoggerFactory.getLogger(TeletaskClientImpl.class);
 
-    private Socket socket;
-    private OutputStream outputStream;
-    private InputStream inputStream;
+    private static final long READER_WAIT_TIME = 500;
+    private static final long READER_RETRY_INTERVAL = 100;
+    private static final long READINESS_SWEEP_MILLIS = 250;
+    private static final String TOGGLE = "TOGGLE";
+
+    private Transport transport;
+    private final FrameDecoder frameDecoder;
+    private final FrameReceiver frameReceiver;
+    private final List<ComponentSpec> receivedComponents = new ArrayList<>();
+    private final SetFrameCache setFrameCache;
 
     private final CentralUnit config;
+    private final TeletaskClientOptions options;
 
     private ExecutorService ioService;
+    private boolean sharedIoService;
+    private ExecutorService groupGetService;
+    private ScheduledExecutorService scheduler;
+    private OutboundQueue outboundQueue;
 
-    private Timer keepAliveTimer;
-    private Timer eventListenerTimer;
+    private ScheduledFuture<?> keepAlive;
+    private ScheduledFuture<?> stateSnapshotWriter;
+    private Thread eventReaderThread;
 
     private final List<StateChangeListener> stateChangeListeners = new ArrayList<>();
-    private EventMessageListener eventMessageListener;
+    private final InFlightQueue inFlightQueue;
+    private final StateChangeWaiters stateChangeWaiters = new StateChangeWaiters();
+    private final ClientMetrics metrics;
+    private final Map<ComponentSpec, CompletableFuture<ComponentState>> readThroughGets = new ConcurrentHashMap<>();
+    private final StateSnapshot stateSnapshot;
+    private final GetCoalescer getCoalescer;
+    private volatile ReadinessTracker readiness;
+    private ScheduledFuture<?> readinessSweeper;
+    private volatile CompletableFuture<TeletaskClient> ready = new CompletableFuture<>();
 
     private final AtomicBoolean started = new AtomicBoolean(false);
+    private final AtomicBoolean reading = new AtomicBoolean(false);
+    private final AtomicBoolean restarting = new AtomicBoolean(false);
+
+    private final TeletaskClientManager manager;
+    private final EventLoop eventLoop;
 
     public TeletaskClientImpl(CentralUnit config) {
+        this(config, new TeletaskClientOptions());
+    }
+
+    public TeletaskClientImpl(CentralUnit config, TeletaskClientOptions options) {
+        this(config, options, null, null);
+    }
+
+    /**
+     * A client managed by a {@link TeletaskClientManager} has no threads of its own, it uses the ones of the manager.
+     */
+    TeletaskClientImpl(CentralUnit config, TeletaskClientOptions options, TeletaskClientManager manager, EventLoop eventLoop) {
         this.config = config;
+        this.options = options;
+        this.manager = manager;
+        this.eventLoop = eventLoop;
+        this.frameDecoder = new FrameDecoder(this.getMessageHandler());
+        this.frameReceiver = new FrameReceiver(LOG, this, this::acknowledge, event -> this.handleReceiveEvent(event, this.receivedComponents));
+        this.setFrameCache = new SetFrameCache(options.getMaxCachedContinuousSetFrames(), config::getConfigurationVersion);
+        this.inFlightQueue = new InFlightQueue(options.getPipelineDepth(), options.getAcknowledgeTimeoutMillis(), this::acknowledgeTimedOut);
+        this.metrics = new ClientMetrics(this.inFlightQueue::getInFlightCount, this.inFlightQueue::getWaitingCount);
+        this.stateSnapshot = options.getStateSnapshotFile() == null ? null : new StateSnapshot(options.getStateSnapshotFile());
+        this.getCoalescer = options.getGetCoalesceWindowMicros() > 0 && this.getMessageHandler().knows(Command.GROUPGET) ?
+                new GetCoalescer(options.getGetCoalesceWindowMicros(), this.getMessageHandler().getMaxOutputsPerFrame(Command.GROUPGET), this::getScheduler, this::sendGroupGet, this.metrics) : null;
     }
 
 // ################################################ PUBLIC API FUNCTIONS
@@ -78,89 +137,303 @@ public final class TeletaskClientImpl implements TeletaskReceiver, TeletaskClien
     }
 
     @Override
-    public void set(ComponentSpec component, String state, SuccessConsumer onSuccess, FailureConsumer onFailed) {
-        if (this.started.get()) {
-            if (Objects.isNull(component.getState())) {
-                this.get(component,
-                        (f, n, s) -> LOG.info("State for {} / {} was somehow null, we reset the state to: {}", component.getFunction(), component.getNumber(), component.getState()),
-                        (f, n, s, e) -> {
-                        });
-                Awaitility.await("State update")
-                        .atMost(5, TimeUnit.SECONDS)
-                        .pollInSameThread()
-                        .pollInterval(10, TimeUnit.MILLISECONDS)
-                        .until(() -> !Objects.isNull(component.getState()));
-            }
+    public CompletableFuture<ComponentState> set(ComponentSpec component, String state) {
+        if (!this.started.get()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Client is not started"));
+        }
+        if (state == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("State should not be null"));
+        }
 
-            if (!Objects.equals(component.getState(), state)) {
-                this.execute(
-                        new SetMessage(this.getConfig(), component.getFunction(), component.getNumber(), Optional.ofNullable(state).orElseThrow(() -> new IllegalArgumentException("State should not be null"))),
-                        m -> onSuccess.execute(component.getFunction(), component.getNumber(), component.getState()),
-                        (m, e) -> onFailed.execute(component.getFunction(), component.getNumber(), component.getState(), e)
-                );
-            }
+        if (Objects.isNull(component.getState()) || component.isStale()) {
+            return this.readThrough(component).thenCompose(s -> {
+                LOG.info("State for {} / {} was somehow null or not confirmed yet, we reset the state to: {}", s.getFunction(), s.getNumber(), s.getState());
+                return this.sendSet(component, state);
+            });
         }
+        return this.sendSet(component, state);
+    }
+
+    private CompletableFuture<ComponentState> sendSet(ComponentSpec component, String state) {
+        if (Objects.equals(component.getState(), state)) {
+            return CompletableFuture.completedFuture(ComponentState.of(component));
+        }
+
+        SetMessage message = new SetMessage(this.getConfig(), component.getFunction(), component.getNumber(), state);
+        if (!component.getFunction().shouldReceiveAcknowledge(state)) {
+            return this.send(message).thenApply(v -> ComponentState.of(component));
+        }
+
+        long start = System.nanoTime();
+        String initialState = component.getState();
+        // The event of a toggle carries the new state, not TOGGLE
+        Predicate<String> confirmed = TOGGLE.equals(state) ? s -> !Objects.equals(s, initialState) : state::equals;
+        CompletableFuture<ComponentState> confirmation = this.stateChangeWaiters.register(component.getFunction(), component.getNumber(), confirmed);
+        this.sendAndWaitForEvent(message, confirmation);
+        return confirmation.handle((s, e) -> {
+            if (e == null) {
+                this.metrics.getSetLatency().record(System.nanoTime() - start);
+                return s;
+            }
+            Throwable cause = unwrap(e);
+            if (cause instanceof TimeoutException) {
+                LOG.warn("Did not receive a state change for {}:{} ({}) within {} ms. Assuming failed to set state from '{}' to '{}'", component.getFunction(), component.getNumber(), component.getDescription(), this.getOptions().getEventTimeoutMillis(), initialState, state);
+                return ComponentState.of(component);
+            }
+            throw new CompletionException(cause);
+        });
     }
 
     @Override
-    public void set(Function function, int number, String state, SuccessConsumer onSucccess, FailureConsumer onFailed) {
-        this.set(this.getComponent(function, number), state, onSucccess, onFailed);
+    public CompletableFuture<ComponentState> set(Function function, int number, String state) {
+        return this.set(this.getComponent(function, number), state);
     }
 
     @Override
-    public void get(Function function, int number, SuccessConsumer onSucccess, FailureConsumer onFailed) {
-        this.get(this.getComponent(function, number), onSucccess, onFailed);
+    public CompletableFuture<ComponentState> get(Function function, int number) {
+        return this.get(this.getComponent(function, number));
     }
 
     @Override
-    public void get(ComponentSpec component, SuccessConsumer onSuccess, FailureConsumer onFailed) {
-        if (this.started.get()) {
-            this.execute(
-                    new GetMessage(this.getConfig(), component.getFunction(), component.getNumber()),
-                    m -> onSuccess.execute(component.getFunction(), component.getNumber(), component.getState()),
-                    (m, e) -> onFailed.execute(component.getFunction(), component.getNumber(), component.getState(), e)
-            );
+    public CompletableFuture<ComponentState> get(ComponentSpec component) {
+        if (!this.started.get()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Client is not started"));
+        }
+
+        if (this.getCoalescer != null) {
+            CompletableFuture<ComponentState> result = this.stateChangeWaiters.register(component.getFunction(), component.getNumber(), s -> true);
+            this.getCoalescer.add(component.getFunction(), component.getNumber(), result);
+            return result;
         }
+        return this.sendGet(component);
+    }
+
+    /**
+     * A group get strategy gave up on getting the state of the component, the client can be ready without it.
+     */
+    public void gaveUp(ComponentSpec component) {
+        ReadinessTracker readiness = this.readiness;
+        if (readiness != null) {
+            readiness.gaveUp(component);
+        }
+    }
+
+    /**
+     * Gets the state without checking whether the client is started, for the group get strategies that run while (re)starting.
+     */
+    public CompletableFuture<ComponentState> sendGet(ComponentSpec component) {
+        CompletableFuture<ComponentState> result = this.stateChangeWaiters.register(component.getFunction(), component.getNumber(), s -> true);
+        this.sendAndWaitForEvent(new GetMessage(this.getConfig(), component.getFunction(), component.getNumber()), result);
+        return result;
+    }
+
+    /**
+     * Gets the state of a component that is needed before it can be used, concurrent callers share the same get.
+     */
+    private CompletableFuture<ComponentState> readThrough(ComponentSpec component) {
+        CompletableFuture<ComponentState> created = new CompletableFuture<>();
+        CompletableFuture<ComponentState> pending = this.readThroughGets.putIfAbsent(component, created);
+        if (pending != null) {
+            return pending;
+        }
+        this.get(component).whenComplete((s, e) -> {
+            this.readThroughGets.remove(component, created);
+            if (e == null) {
+                created.complete(s);
+            } else {
+                created.completeExceptionally(unwrap(e));
+            }
+        });
+        return created;
+    }
+
+    /**
+     * The waiter for the event is registered before the message is sent, the event can arrive right after the acknowledge.
+     * It fails when the message is not acknowledged, or when the event does not arrive in time after the acknowledge.
+     */
+    private void sendAndWaitForEvent(MessageSupport message, CompletableFuture<ComponentState> waiter) {
+        this.waitForEvent(this.send(message), message.getId(), waiter);
+    }
+
+    private void waitForEvent(CompletableFuture<Void> sent, String id, CompletableFuture<ComponentState> waiter) {
+        sent.whenComplete((v, e) -> {
+            if (e != null) {
+                waiter.completeExceptionally(unwrap(e));
+            } else if (!waiter.isDone()) {
+                long timeout = this.getOptions().getEventTimeoutMillis();
+                CompletableFuture.delayedExecutor(timeout, TimeUnit.MILLISECONDS).execute(() ->
+                        waiter.completeExceptionally(new TimeoutException(String.format("%s - Did not receive an event within %s ms", id, timeout))));
+            }
+        });
+    }
+
+    /**
+     * Sends the gets collected by the {@link GetCoalescer}, the chunks right after each other.
+     */
+    private void sendGroupGet(Function function, int[] numbers, List<CompletableFuture<ComponentState>> waiters) {
+        List<GroupGetMessage> messages = GroupGetMessage.chunked(this.getConfig(), function, numbers);
+        CompletableFuture<Void> sent = CompletableFuture.allOf(messages.stream().map(this::send).toArray(CompletableFuture<?>[]::new));
+        String id = messages.get(0).getId();
+        for (CompletableFuture<ComponentState> waiter : waiters) {
+            this.waitForEvent(sent, id, waiter);
+        }
+    }
+
+    public ClientMetrics getMetrics() {
+        return this.metrics;
     }
 
     @Override
     public TeletaskClient start() {
+        try {
+            this.startPipeline(true).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+        return this;
+    }
+
+    @Override
+    public CompletableFuture<TeletaskClient> startAsync() {
+        this.startPipeline(false);
+        return this.whenReady();
+    }
+
+    @Override
+    public CompletableFuture<TeletaskClient> whenReady() {
+        return this.ready;
+    }
+
+    /**
+     * Finding the components without a known state overlaps with connecting, they run on different threads.
+     * Once connected, the log registrations and the group gets of all functions are sent without waiting for each other.
+     *
+     * @param connectInCallingThread {@link #start()} connects in the calling thread, {@link #startAsync()} in a thread of its own.
+     * @return A future that completes when the client is connected.
+     */
+    private CompletableFuture<Void> startPipeline(boolean connectInCallingThread) {
+        StartupTimings timings = this.metrics.startupBegun();
+        if (this.ready.isDone()) {
+            this.ready = new CompletableFuture<>();
+        }
+        this.stopReadinessTracker();
         this.startIoService();
+        this.startScheduler();
+        timings.run(StartupTimings.Phase.SNAPSHOT, this::restoreStateSnapshot);
+
+        timings.begin(StartupTimings.Phase.INDEX);
+        CompletableFuture<ReadinessTracker> indexed = timings.time(StartupTimings.Phase.INDEX,
+                CompletableFuture.supplyAsync(() -> new ReadinessTracker(this.getConfig().getAllComponents())));
+
+        CompletableFuture<Void> connected = CompletableFuture.runAsync(() -> timings.run(StartupTimings.Phase.CONNECT, () -> {
+            this.connectAndWait();
+            this.startEventReader();
+        }), connectInCallingThread ? Runnable::run : r -> new Thread(r, "connect").start()).thenRun(() -> {
+            this.startKeepAlive();
+            this.startStateSnapshotWriter();
+            this.started.set(true);
+        });
 
-        connectAndWait();
-
-        this.startEventListener();
-
-//        try {
-//            Awaitility.await("Startup").atMost(2, TimeUnit.MINUTES).pollInSameThread().pollInterval(1, TimeUnit.SECONDS).until(() -> {
-//                boolean success = false;
-//                try {
-//                    this.getMessageHandler().getKeepAliveStrategy().execute(this);
-//                    success = true;
-//                } catch (CommunicationException | AcknowledgeException e) {
-//                    LOG.debug(String.format("Could not connect (%s): %s", e.getClass().getSimpleName(), e.getMessage()));
-//                }
-//                return success;
-//            });
-//        } catch (Exception e) {
-//            this.stopKeepAliveService();
-//            this.stopEventListener();
-//            this.stopIoService();
-//            this.stopStateChangeListeners();
-//            throw new CommunicationException("Failed to start within time", e);
-//        }
-
-        this.getIoService().execute(() -> {
-            this.groupGet();
-
-            this.sendLogEventMessages("ON");
+        connected.thenCombine(indexed, (v, readiness) -> readiness).whenComplete((readiness, e) -> {
+            if (e != null) {
+                this.ready.completeExceptionally(unwrap(e));
+            } else {
+                this.initialize(timings, readiness);
+            }
         });
+        return connected;
+    }
 
-        this.startKeepAlive();
+    /**
+     * Registers for events and requests the states of all components, after the client (re)connected.
+     * The tracker only completes the ready future of this (re)start, a later restart stops it.
+     */
+    private void initialize(StartupTimings timings, ReadinessTracker readiness) {
+        CompletableFuture<TeletaskClient> ready = this.ready;
+        this.readiness = readiness;
+        // States could have been received between indexing and now
+        readiness.sweep();
+
+        timings.begin(StartupTimings.Phase.LOG);
+        timings.time(StartupTimings.Phase.LOG, this.sendLogEventMessages("ON")).whenComplete((v, e) -> {
+            if (e != null) {
+                LOG.warn("Could not register for events: {}", unwrap(e).getMessage());
+            }
+        });
+        timings.begin(StartupTimings.Phase.GROUP_GET);
+        timings.time(StartupTimings.Phase.GROUP_GET, this.groupGetAsync()).whenComplete((v, e) -> {
+            if (e != null) {
+                LOG.warn("Could not get the state of all components: {}", unwrap(e).getMessage());
+            }
+        });
 
-        this.started.set(true);
+        ScheduledFuture<?> sweeper = this.getScheduler().scheduleWithFixedDelay(readiness::sweep, READINESS_SWEEP_MILLIS, READINESS_SWEEP_MILLIS, TimeUnit.MILLISECONDS);
+        synchronized (this) {
+            this.readinessSweeper = sweeper;
+        }
+        readiness.getReady().thenRun(() -> {
+            sweeper.cancel(false);
+            timings.end(StartupTimings.Phase.READY);
+            LOG.info("Client for {}:{} is ready: {}", this.getConfig().getHost(), this.getConfig().getPort(), timings);
+            ready.complete(this);
+        });
+    }
 
-        return this;
+    /**
+     * Stops the tracker and the sweeper of the previous (re)start, so they do not complete the ready future of the next one.
+     */
+    private synchronized void stopReadinessTracker() {
+        if (this.readinessSweeper != null) {
+            this.readinessSweeper.cancel(false);
+            this.readinessSweeper = null;
+        }
+        if (this.readiness != null) {
+            this.readiness.cancel();
+            this.readiness = null;
+        }
+    }
+
+    /**
+     * The states of the snapshot are served right away, they are stale until the group get or an event confirms them.
+     */
+    private void restoreStateSnapshot() {
+        if (this.stateSnapshot == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            int restored = this.stateSnapshot.restore(this.getConfig());
+            LOG.info("Restored {} stale states from {} in {}ms", restored, this.stateSnapshot.getFile(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            LOG.warn("Could not restore the states from {}: {}", this.stateSnapshot.getFile(), e.getMessage());
+        }
+    }
+
+    private void startStateSnapshotWriter() {
+        if (this.stateSnapshot == null) {
+            return;
+        }
+        long interval = this.getOptions().getStateSnapshotIntervalMillis();
+        this.stateSnapshotWriter = this.getScheduler().scheduleAtFixedRate(this::writeStateSnapshot, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private void writeStateSnapshot() {
+        try {
+            if (this.stateSnapshot.write(this.getConfig())) {
+                LOG.debug("Wrote the states to {}", this.stateSnapshot.getFile());
+            }
+        } catch (IOException e) {
+            LOG.warn("Could not write the states to {}: {}", this.stateSnapshot.getFile(), e.getMessage());
+        }
+    }
+
+    private void stopStateSnapshotWriter() {
+        if (this.stateSnapshotWriter == null) {
+            return;
+        }
+        this.stateSnapshotWriter.cancel(false);
+        this.stateSnapshotWriter = null;
+        this.writeStateSnapshot();
     }
 
     private void connectAndWait() {
@@ -174,21 +447,51 @@ public final class TeletaskClientImpl implements TeletaskReceiver, TeletaskClien
                 .until(() -> this.connect(host, port));
     }
 
+    /**
+     * A restart that is asked while another one is running, e.g. by the keep alive and an acknowledge timeout, is skipped.
+     * When a message timed out during the restart, the connection is reset once more.
+     */
     @Override
     public void restart() {
-        this.started.set(false);
+        if (!this.restarting.compareAndSet(false, true)) {
+            LOG.debug("Skipping restart, the client is already restarting");
+            return;
+        }
+        try {
+            this.reconnect();
+        } finally {
+            this.restarting.set(false);
+        }
+        if (this.inFlightQueue.isPoisoned()) {
+            this.acknowledgeTimedOut();
+        }
+    }
 
-        this.closeInputStream();
-        this.closeOutputStream();
-        this.closeSocket();
+    private void reconnect() {
+        this.started.set(false);
+        this.stopReadinessTracker();
 
-        this.connectAndWait();
+        this.closeTransport();
+        this.failInFlightMessages();
 
-        this.getIoService().execute(() -> {
-            this.groupGet();
+        StartupTimings timings = this.metrics.startupBegun();
+        if (this.ready.isDone()) {
+            this.ready = new CompletableFuture<>();
+        }
+        timings.run(StartupTimings.Phase.CONNECT, this::connectAndWait);
+        this.metrics.reconnected();
+
+        // Events could have been missed while disconnected
+        timings.begin(StartupTimings.Phase.INDEX);
+        for (ComponentSpec component : this.getConfig().getAllComponents()) {
+            if (component.getState() != null) {
+                component.setStale(true);
+            }
+        }
+        ReadinessTracker readiness = new ReadinessTracker(this.getConfig().getAllComponents());
+        timings.end(StartupTimings.Phase.INDEX);
 
-            this.sendLogEventMessages("ON");
-        });
+        this.initialize(timings, readiness);
 
         this.started.set(true);
     }
@@ -196,17 +499,20 @@ public final class TeletaskClientImpl implements TeletaskReceiver, TeletaskClien
     @Override
     public void stop() {
         this.started.set(false);
+        this.ready.completeExceptionally(new IllegalStateException("Client was stopped before it was ready"));
         // close all log events to stop reporting
 
         Collection<Runnable> runnables = new ArrayList<>();
 
+        runnables.add(this::stopReadinessTracker);
         runnables.add(this::stopKeepAliveService);
-        runnables.add(this::stopEventListener);
+        runnables.add(this::stopStateSnapshotWriter);
+        runnables.add(this::stopEventReader);
         runnables.add(this::stopStateChangeListeners);
         runnables.add(this::stopIoService);
-        runnables.add(this::closeInputStream);
-        runnables.add(this::closeOutputStream);
-        runnables.add(this::closeSocket);
+        runnables.add(this::stopScheduler);
+        runnables.add(this::closeTransport);
+        runnables.add(this::failInFlightMessages);
 
         this.runRunnables(runnables);
     }
@@ -216,17 +522,32 @@ public final class TeletaskClientImpl implements TeletaskReceiver, TeletaskClien
         return this.config;
     }
 
-    public void send(byte[] message, java.util.function.Function<byte[], String> logMessage) {
+    public TeletaskClientOptions getOptions() {
+        return this.options;
+    }
+
+    /**
+     * Sends the message through the in flight queue, which limits the amount of messages waiting for an acknowledge.
+     *
+     * @return A future that completes when the central unit acknowledged the message.
+     */
+    public CompletableFuture<Void> submit(MessageSupport message) {
+        return this.inFlightQueue.submit(message, () -> this.write(message));
+    }
+
+    /**
+     * Composes the message right into the buffer of the writer thread, so a write never has to wait for a read (or the other way around).
+     * Messages that are sent at about the same time are written to the connection together.
+     * Problems while writing will surface as a missing acknowledge.
+     */
+    private void write(MessageSupport message) {
         if (LOG.isDebugEnabled()) {
-            LOG.debug(logMessage.apply(message));
-        }
-        try {
-            MessageUtilities.send(getOutputStream(), message);
-        } catch (IOException e) {
-            throw new CommunicationException("Problem sending message to teletask central unit", e);
+            LOG.debug(message.getLogInfo(message.toByteArray()));
         }
+        this.outboundQueue.add(dst -> message.compose(this, dst));
     }
 
+
     public static class CommunicationException extends RuntimeException {
         public CommunicationException(String message, Throwable cause) {
             super(message, cause);
@@ -246,6 +567,32 @@ public final class TeletaskClientImpl implements TeletaskReceiver, TeletaskClien
         new GroupGetTask(function, numbers).run();
     }
 
+    /**
+     * Requests the states of the components of all functions at the same time.
+     * A strategy can block until its function is done, so every function gets a thread of the group get service,
+     * unless the io service already runs its tasks next to each other.
+     *
+     * @return A future that completes when the group get strategy is done with every function.
+     */
+    private CompletableFuture<Void> groupGetAsync() {
+        GroupGetStrategy strategy = this.getMessageHandler().getGroupGetStrategy();
+        Map<Function, int[]> numbersByFunction = new EnumMap<>(Function.class);
+        for (Function function : Function.values()) {
+            List<? extends ComponentSpec> components = this.getConfig().getComponents(function);
+            if (components != null && !components.isEmpty()) {
+                numbersByFunction.put(function, components.stream().mapToInt(ComponentSpec::getNumber).toArray());
+            }
+        }
+        if (numbersByFunction.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        ExecutorService executor = this.groupGetService == null ? this.getIoService() : this.groupGetService;
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        numbersByFunction.forEach((function, numbers) -> futures.add(CompletableFuture.runAsync(() -> strategy.execute(this, function, numbers), executor)));
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
     public void groupGet(Function function) {
         List<? extends ComponentSpec> components = this.getConfig().getComponents(function);
         if (components != null && !components.isEmpty()) {
@@ -253,40 +600,49 @@ public final class TeletaskClientImpl implements TeletaskReceiver, TeletaskClien
         }
     }
 
-    private void sendLogEventMessages(String state) {
-        this.sendLogEventMessage(Function.RELAY, state);
-        this.sendLogEventMessage(Function.LOCMOOD, state);
-        this.sendLogEventMessage(Function.GENMOOD, state);
-        this.sendLogEventMessage(Function.MOTOR, state);
-        this.sendLogEventMessage(Function.DIMMER, state);
-        this.sendLogEventMessage(Function.COND, state);
-        this.sendLogEventMessage(Function.SENSOR, state);
-        this.sendLogEventMessage(Function.FLAG, state);
+    /**
+     * Sends the log messages of all functions without waiting for the acknowledge of each one, the pipeline depth still applies.
+     */
+    private CompletableFuture<Void> sendLogEventMessages(String state) {
+        return CompletableFuture.allOf(
+                this.sendLogEventMessage(Function.RELAY, state),
+                this.sendLogEventMessage(Function.LOCMOOD, state),
+                this.sendLogEventMessage(Function.GENMOOD, state),
+                this.sendLogEventMessage(Function.MOTOR, state),
+                this.sendLogEventMessage(Function.DIMMER, state),
+                this.sendLogEventMessage(Function.COND, state),
+                this.sendLogEventMessage(Function.SENSOR, state),
+                this.sendLogEventMessage(Function.FLAG, state));
     }
 
-    private <M extends MessageSupport> void execute(
-            M message,
-            Consumer<M> onSucccess,
-            BiConsumer<M, Exception> onFailed) {
+    private CompletableFuture<Void> send(MessageSupport message) {
         try {
-            this.getIoService()
-                    .execute(new MessageExecutor(message, this));
-            onSucccess.accept(message);
+            return message.send(this).handle((v, e) -> {
+                if (e != null) {
+                    Throwable cause = unwrap(e);
+                    LOG.debug("Exception ({}) caught in send: {}", cause.getClass().getName(), cause.getMessage());
+                    throw new CompletionException(cause);
+                }
+                return v;
+            });
         } catch (Exception e) {
-            LOG.debug("Exception ({}) caught in execute: {}", e.getClass().getName(), e.getMessage());
-            onFailed.accept(message, e);
+            LOG.debug("Exception ({}) caught in send: {}", e.getClass().getName(), e.getMessage());
+            return CompletableFuture.failedFuture(e);
         }
     }
 
-    private void startEventListener() {
-        this.setEventMessageListener(new EventMessageListener());
-        this.eventListenerTimer = new Timer("event-listener");
-        this.eventListenerTimer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                TeletaskClientImpl.this.ioService.execute(TeletaskClientImpl.this.getEventMessageListener());
-            }
-        }, 0, 20);
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    private void startEventReader() {
+        if (this.eventLoop != null) {
+            // The event loop of the manager reads the connection, it is registered when connecting.
+            return;
+        }
+        this.reading.set(true);
+        this.eventReaderThread = new Thread(new EventReader(), "event-reader");
+        this.eventReaderThread.start();
     }
 
     private boolean connect(String host, int port) {
@@ -295,24 +651,21 @@ public final class TeletaskClientImpl implements TeletaskReceiver, TeletaskClien
         // Connect method
         LOG.debug("Connecting to {}:{}", host, port);
 
+        Transport transport = this.getOptions().getTransportType().createTransport();
         try {
-            this.socket = new Socket(host, port);
-            this.socket.setKeepAlive(true);
-            this.socket.setSoTimeout(2000);
+            transport.connect(host, port);
+            this.getFrameDecoder().reset();
+            this.transport = transport;
+            if (this.eventLoop != null) {
+                this.eventLoop.register(((NioTransport) transport).getChannel(), this::readAvailable);
+            }
             connected = true;
         } catch (IOException e) {
             LOG.error("Problem connecting to host: {}:{}", host, port);
         }
 
         if (connected) {
-            LOG.debug("Successfully Connected");
-
-            try {
-                this.outputStream = this.socket.getOutputStream();
-                this.inputStream = this.socket.getInputStream();
-            } catch (IOException e) {
-                LOG.error("Couldn't get I/O for the connection to: {}:{}", host, port);
-            }
+            LOG.debug("Successfully Connected using {} transport", this.getOptions().getTransportType());
         }
 
         return connected;
@@ -320,8 +673,7 @@ public final class TeletaskClientImpl implements TeletaskReceiver, TeletaskClien
 
     private void startKeepAlive() {
         KeepAliveStrategy keepAliveStrategy = this.getMessageHandler().getKeepAliveStrategy();
-        this.keepAliveTimer = new Timer("keep-alive");
-        this.keepAliveTimer.schedule(new KeepAliveService(keepAliveStrategy), 0, keepAliveStrategy.getIntervalMillis());
+        this.keepAlive = this.getScheduler().scheduleAtFixedRate(new KeepAliveService(keepAliveStrategy), 0, keepAliveStrategy.getIntervalMillis(), TimeUnit.MILLISECONDS);
     }
 
     @Override
@@ -329,8 +681,8 @@ public final class TeletaskClientImpl implements TeletaskReceiver, TeletaskClien
         return MessageHandlerFactory.getMessageHandler(this.getConfig().getCentralUnitType());
     }
 
-    private void sendLogEventMessage(Function function, String state) {
-        new LogMessage(this.getConfig(), function, state).execute(this);
+    private CompletableFuture<Void> sendLogEventMessage(Function function, String state) {
+        return this.send(new LogMessage(this.getConfig(), function, state));
     }
 
     /**
@@ -344,43 +696,128 @@ public final class TeletaskClientImpl implements TeletaskReceiver, TeletaskClien
         throw new CloneNotSupportedException();
     }
 
-    private ExecutorService getIoService() {
+    public ExecutorService getIoService() {
         return this.ioService;
     }
 
-    public OutputStream getOutputStream() {
-        return this.outputStream;
+    private ScheduledExecutorService getScheduler() {
+        return this.scheduler;
     }
 
     @Override
-    public InputStream getInputStream() {
-        return this.inputStream;
+    public Transport getTransport() {
+        return this.transport;
     }
 
-    public class EventMessageListener implements Runnable {
+    @Override
+    public FrameDecoder getFrameDecoder() {
+        return this.frameDecoder;
+    }
+
+    public SetFrameCache getSetFrameCache() {
+        return this.setFrameCache;
+    }
+
+    /**
+     * Blocks on the connection and handles messages as soon as they arrive.
+     * This is the only place where the connection is read, acknowledges are handed to the in flight queue.
+     */
+    private class EventReader implements Runnable {
         @Override
         public void run() {
+            while (TeletaskClientImpl.this.reading.get()) {
+                Transport transport = TeletaskClientImpl.this.getTransport();
+                try {
+                    if (transport == null || !transport.isConnected()) {
+                        Thread.sleep(READER_RETRY_INTERVAL);
+                    } else {
+                        TeletaskClientImpl.this.receive(READER_WAIT_TIME);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    LOG.trace("Exception ({}) caught in EventReader: {}", e.getClass().getName(), e.getMessage());
+                    this.pause();
+                }
+            }
+        }
+
+        private void pause() {
             try {
-                TeletaskClientImpl.this.handleReceiveEvents(MessageUtilities.receive(LOG, TeletaskClientImpl.this));
-            } catch (Exception e) {
-                LOG.trace("Exception ({}) caught in EventMessageListener: {}", e.getClass().getName(), e.getMessage());
+                Thread.sleep(READER_RETRY_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
         }
     }
 
+    /**
+     * Handles what is available on the connection without waiting, called by the event loop of the manager.
+     */
+    private void readAvailable() throws Exception {
+        this.receive(0);
+    }
+
+    /**
+     * Events are handled straight from the receive buffer, an {@link EventMessage} is only created to log it.
+     * The connection is only read by one thread at a time, so the receiver and the list of changed components are reused.
+     */
+    private void receive(long waitMillis) throws Exception {
+        this.receivedComponents.clear();
+        List<MessageSupport> messages = this.frameReceiver.receive(waitMillis);
+        this.handleReceiveEvents(messages, this.receivedComponents);
+    }
+
+    private void acknowledge() {
+        this.metrics.acknowledgeReceived();
+        this.inFlightQueue.acknowledge();
+    }
+
+    /**
+     * A late acknowledge can not be told apart from the acknowledge of the next message, so the connection is reset.
+     * The reset is also scheduled while the client is (re)starting, only a stopped client has no io service to run it.
+     */
+    private void acknowledgeTimedOut() {
+        ExecutorService ioService = this.getIoService();
+        if (ioService == null) {
+            return;
+        }
+        LOG.warn("Reconnecting to {}:{}, a message was not acknowledged in time", this.getConfig().getHost(), this.getConfig().getPort());
+        try {
+            ioService.execute(this::resetAfterAcknowledgeTimeout);
+        } catch (RejectedExecutionException e) {
+            LOG.debug("Exception ({}) caught in acknowledgeTimedOut: {}", e.getClass().getName(), e.getMessage());
+        }
+    }
+
+    /**
+     * A restart that ran in the meantime already reset the connection.
+     */
+    private void resetAfterAcknowledgeTimeout() {
+        if (this.inFlightQueue.isPoisoned()) {
+            this.restart();
+        }
+    }
+
     public void handleReceiveEvents(Iterable<MessageSupport> messages) {
-        List<ComponentSpec> components = new ArrayList<>();
+        this.handleReceiveEvents(messages, new ArrayList<>());
+    }
+
+    private void handleReceiveEvents(Iterable<MessageSupport> messages, List<ComponentSpec> components) {
         for (MessageSupport message : messages) {
             if (message instanceof EventMessage) {
                 EventMessage eventMessage = (EventMessage) message;
+                this.metrics.eventReceived();
                 this.handleReceiveEvent(this.getConfig(), eventMessage);
                 components.add(this.getComponent(eventMessage.getFunction(), eventMessage.getNumber()));
             }
         }
 
         if (!components.isEmpty()) {
+            List<ComponentSpec> changed = new ArrayList<>(components);
             for (StateChangeListener stateChangeListener : this.getStateChangeListeners()) {
-                stateChangeListener.receive(components);
+                stateChangeListener.receive(changed);
             }
         }
     }
@@ -389,6 +826,28 @@ public final class TeletaskClientImpl implements TeletaskReceiver, TeletaskClien
         return this.getConfig().getComponent(function, number);
     }
 
+    private void handleReceiveEvent(EventFrame event, List<ComponentSpec> components) {
+        this.metrics.eventReceived();
+        ComponentSpec component = this.getComponent(event.getFunction(), event.getNumber());
+        if (component != null) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Event - Component: {}, Current State: {} - {}", component.getDescription(), component.getState(), this.getLogInfo(event));
+            } else if (LOG.isTraceEnabled()) {
+                LOG.trace("Event: \nComponent: {}\nCurrent State: {} {}", component.getDescription(), component.getState(), this.getLogInfo(event));
+            }
+            this.changeState(component, event.getState(component));
+        } else {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Event: \nComponent: not found in configuration {}", this.getLogInfo(event));
+            }
+        }
+        components.add(component);
+    }
+
+    private String getLogInfo(EventFrame event) {
+        EventMessage eventMessage = event.toEventMessage(this.getConfig());
+        return eventMessage.getLogInfo(eventMessage.getRawBytes());
+    }
 
     private void handleReceiveEvent(CentralUnit config, EventMessage eventMessage) {
         ComponentSpec component = config.getComponent(eventMessage.getFunction(), eventMessage.getNumber());
@@ -398,10 +857,7 @@ public final class TeletaskClientImpl implements TeletaskReceiver, TeletaskClien
             } else if (LOG.isTraceEnabled()) {
                 LOG.trace("Event: \nComponent: {}\nCurrent State: {} {}", component.getDescription(), component.getState(), eventMessage.getLogInfo(eventMessage.getRawBytes()));
             }
-            String state = eventMessage.getState();
-            if (component.getFunction() != Function.MOTOR || !Objects.equals("STOP", state)) {
-                component.setState(state);
-            }
+            this.changeState(component, eventMessage.getState());
         } else {
             if (LOG.isDebugEnabled()) {
                 LOG.debug("Event: \nComponent: not found in configuration {}", eventMessage.getLogInfo(eventMessage.getRawBytes()));
@@ -409,7 +865,20 @@ public final class TeletaskClientImpl implements TeletaskReceiver, TeletaskClien
         }
     }
 
-    private class KeepAliveService extends TimerTask {
+    private void changeState(ComponentSpec component, String state) {
+        if (component.getFunction() != Function.MOTOR || !Objects.equals("STOP", state)) {
+            component.setState(state);
+        } else {
+            component.setStale(false);
+        }
+        ReadinessTracker readiness = this.readiness;
+        if (readiness != null) {
+            readiness.stateChanged(component);
+        }
+        this.stateChangeWaiters.stateChanged(component, state);
+    }
+
+    private class KeepAliveService implements Runnable {
         private final KeepAliveStrategy keepAliveStrategy;
 
         public KeepAliveService(KeepAliveStrategy keepAliveStrategy) {
@@ -435,14 +904,6 @@ public final class TeletaskClientImpl implements TeletaskReceiver, TeletaskClien
         return this.stateChangeListeners;
     }
 
-    private EventMessageListener getEventMessageListener() {
-        return this.eventMessageListener;
-    }
-
-    private void setEventMessageListener(EventMessageListener eventMessageListener) {
-        this.eventMessageListener = eventMessageListener;
-    }
-
     private void runRunnables(Iterable<Runnable> runnables) {
         runnables.forEach(r -> {
             try {
@@ -458,49 +919,50 @@ public final class TeletaskClientImpl implements TeletaskReceiver, TeletaskClien
     }
 
     private void stopKeepAliveService() {
-        this.keepAliveTimer.cancel();
-        this.keepAliveTimer.purge();
-        this.keepAliveTimer = null;
+        this.keepAlive.cancel(false);
+        this.keepAlive = null;
     }
 
-    private void stopEventListener() {
-        this.eventListenerTimer.cancel();
-        this.eventListenerTimer.purge();
-        this.eventListenerTimer = null;
-    }
-
-    private void closeSocket() {
+    private void stopEventReader() {
+        this.reading.set(false);
+        if (this.eventReaderThread == null) {
+            return;
+        }
         try {
-            this.socket.close();
-        } catch (IOException e) {
-            LOG.error("Exception ({}) caught in stop: {}", e.getClass().getName(), e.getMessage(), e);
+            this.eventReaderThread.join(READER_WAIT_TIME * 2);
+        } catch (InterruptedException e) {
+            LOG.debug("Exception ({}) caught in stop: {}", e.getClass().getName(), e.getMessage());
         } finally {
-            this.socket = null;
+            this.eventReaderThread = null;
         }
     }
 
-    private void closeOutputStream() {
-        try {
-            this.getOutputStream().flush();
-            this.getOutputStream().close();
-        } catch (IOException e) {
-            LOG.error("Exception ({}) caught in stop: {}", e.getClass().getName(), e.getMessage(), e);
-        } finally {
-            this.outputStream = null;
-        }
+    private void failInFlightMessages() {
+        CommunicationException cause = new CommunicationException("Connection to the teletask central unit was closed", null);
+        this.outboundQueue.clear();
+        this.inFlightQueue.failAll(cause);
+        this.stateChangeWaiters.failAll(cause);
     }
 
-    private void closeInputStream() {
+    private void closeTransport() {
         try {
-            this.getInputStream().close();
+            this.getTransport().close();
         } catch (IOException e) {
             LOG.error("Exception ({}) caught in stop: {}", e.getClass().getName(), e.getMessage(), e);
         } finally {
-            this.inputStream = null;
+            this.transport = null;
         }
     }
 
     private void stopIoService() {
+        if (this.groupGetService != null) {
+            this.groupGetService.shutdown();
+            this.groupGetService = null;
+        }
+        if (this.sharedIoService) {
+            this.ioService = null;
+            return;
+        }
         try {
             this.getIoService().shutdown();
             this.getIoService().awaitTermination(5, TimeUnit.SECONDS);
@@ -528,7 +990,40 @@ public final class TeletaskClientImpl implements TeletaskReceiver, TeletaskClien
         }
     }
 
+    /**
+     * A managed client uses the io pool of the manager, unless it runs on virtual threads which are cheap enough to have per client.
+     * The io service of an unmanaged client on platform threads runs one task at a time,
+     * the group gets of the functions run next to each other on a pool that is kept until the client stops, reconnects reuse its threads.
+     */
     private void startIoService() {
-        this.ioService = Executors.newSingleThreadExecutor(r -> new Thread(r, "io"));
+        ExecutionMode executionMode = this.getOptions().getExecutionMode();
+        this.sharedIoService = this.manager != null && executionMode != ExecutionMode.VIRTUAL_THREADS;
+        this.ioService = this.sharedIoService ? this.manager.getIoService() : executionMode.createExecutor("io");
+        if (!this.sharedIoService && executionMode == ExecutionMode.PLATFORM_THREAD && this.groupGetService == null) {
+            this.groupGetService = Executors.newCachedThreadPool(r -> new Thread(r, "group-get"));
+        }
+    }
+
+    /**
+     * The scheduler writes the messages to the connection and triggers the keep alive.
+     */
+    private void startScheduler() {
+        this.scheduler = this.manager == null ? Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "scheduler")) : this.manager.getScheduler();
+        this.outboundQueue = new OutboundQueue(this::getTransport, this.scheduler, this.getOptions().getMaxWriteBatchBytes(), this.getOptions().getMaxWriteLingerMicros(), this.metrics.getWrites());
+    }
+
+    private void stopScheduler() {
+        if (this.manager != null) {
+            this.scheduler = null;
+            return;
+        }
+        try {
+            this.getScheduler().shutdown();
+            this.getScheduler().awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            LOG.debug("Exception ({}) caught in stop: {}", e.getClass().getName(), e.getMessage());
+        } finally {
+            this.scheduler = null;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,186 @@
+package io.github.ridiekel.jeletask.client;
+
+import io.github.ridiekel.jeletask.client.metrics.ClientMetrics;
+import io.github.ridiekel.jeletask.client.transport.EventLoop;
+import io.github.ridiekel.jeletask.client.transport.TransportType;
+import io.github.ridiekel.jeletask.model.spec.CentralUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the clients of many central units on a small, fixed amount of threads.
+ * <p>
+ * The connections are read by a few selector threads (event loops), a client is assigned to one of them when it is added.
+ * Writes, keep alives and other timed work of all clients run on one shared scheduler.
+ * Work that can block (e.g. the group get at startup) runs on a shared io pool of a fixed size, which only keeps threads while there is work to do.
+ * Managed clients always use the {@link TransportType#NIO} transport.
+ * <p>
+ * The state change listeners of a managed client are called on its event loop thread, and so are the dependent stages of
+ * the futures returned by get and set that are not async. They delay the other connections of the loop and should not block;
+ * use the async variants (e.g. {@link CompletableFuture#thenApplyAsync(java.util.function.Function)}) for slow work.
+ */
+public class TeletaskClientManager implements Closeable {
+    /**
+     * Logger responsible for logging and debugging statements.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(TeletaskClientManager.class);
+
+    private static final int DEFAULT_IO_THREADS = 8;
+    private static final long IO_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+    private final List<EventLoop> eventLoops = new ArrayList<>();
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService ioService;
+
+    private final Map<CentralUnit, TeletaskClientImpl> clients = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final AtomicInteger nextEventLoop = new AtomicInteger();
+
+    public TeletaskClientManager() throws IOException {
+        this(1, 1);
+    }
+
+    public TeletaskClientManager(int eventLoops, int schedulerThreads) throws IOException {
+        this(eventLoops, schedulerThreads, DEFAULT_IO_THREADS);
+    }
+
+    /**
+     * @param eventLoops       The amount of selector threads reading the connections.
+     * @param schedulerThreads The amount of threads writing messages and running timed work.
+     * @param ioThreads        The maximum amount of threads running work that can block, more work waits for a free thread.
+     */
+    public TeletaskClientManager(int eventLoops, int schedulerThreads, int ioThreads) throws IOException {
+        for (int i = 0; i < eventLoops; i++) {
+            this.eventLoops.add(new EventLoop("teletask-event-loop-" + i));
+        }
+        this.scheduler = Executors.newScheduledThreadPool(schedulerThreads, new NamedThreadFactory("teletask-scheduler-"));
+        ThreadPoolExecutor ioService = new ThreadPoolExecutor(ioThreads, ioThreads, IO_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new NamedThreadFactory("teletask-io-"));
+        ioService.allowCoreThreadTimeOut(true);
+        this.ioService = ioService;
+    }
+
+    public TeletaskClientImpl add(CentralUnit config) {
+        return this.add(config, new TeletaskClientOptions());
+    }
+
+    /**
+     * Creates a client for the central unit, it still has to be started.
+     *
+     * @param options Copied, the client uses the {@link TransportType#NIO} transport whatever the transport type of the options.
+     */
+    public TeletaskClientImpl add(CentralUnit config, TeletaskClientOptions options) {
+        TeletaskClientOptions managed = new TeletaskClientOptions(options);
+        managed.setTransportType(TransportType.NIO);
+        EventLoop eventLoop = this.eventLoops.get(Math.floorMod(this.nextEventLoop.getAndIncrement(), this.eventLoops.size()));
+        TeletaskClientImpl client = new TeletaskClientImpl(config, managed, this, eventLoop);
+        if (this.clients.putIfAbsent(config, client) != null) {
+            throw new IllegalArgumentException("There already is a client for central unit " + config.getHost() + ":" + config.getPort());
+        }
+        return client;
+    }
+
+    /**
+     * Stops the client of the central unit and forgets about it.
+     */
+    public void remove(CentralUnit config) {
+        TeletaskClientImpl client = this.clients.remove(config);
+        if (client != null) {
+            client.stop();
+        }
+    }
+
+    public TeletaskClientImpl getClient(CentralUnit config) {
+        return this.clients.get(config);
+    }
+
+    public Collection<TeletaskClientImpl> getClients() {
+        synchronized (this.clients) {
+            return new ArrayList<>(this.clients.values());
+        }
+    }
+
+    /**
+     * Starts all clients at the same time, instead of waiting for the connection of each client before starting the next.
+     */
+    public void start() {
+        CompletableFuture.allOf(this.getClients().stream()
+                .map(c -> CompletableFuture.runAsync(c::start, this.ioService))
+                .toArray(CompletableFuture[]::new)).join();
+    }
+
+    /**
+     * @return The metrics of all clients, by central unit.
+     */
+    public Map<CentralUnit, ClientMetrics> getMetrics() {
+        Map<CentralUnit, ClientMetrics> metrics = new IdentityHashMap<>();
+        for (TeletaskClientImpl client : this.getClients()) {
+            metrics.put(client.getConfig(), client.getMetrics());
+        }
+        return metrics;
+    }
+
+    ScheduledExecutorService getScheduler() {
+        return this.scheduler;
+    }
+
+    ExecutorService getIoService() {
+        return this.ioService;
+    }
+
+    @Override
+    public void close() {
+        this.getClients().forEach(c -> this.remove(c.getConfig()));
+        for (EventLoop eventLoop : this.eventLoops) {
+            try {
+                eventLoop.close();
+            } catch (IOException e) {
+                LOG.debug("Exception ({}) caught in close: {}", e.getClass().getName(), e.getMessage());
+            }
+        }
+        this.shutdown(this.scheduler);
+        this.shutdown(this.ioService);
+    }
+
+    private void shutdown(ExecutorService executor) {
+        try {
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            LOG.debug("Exception ({}) caught in close: {}", e.getClass().getName(), e.getMessage());
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, this.prefix + this.count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
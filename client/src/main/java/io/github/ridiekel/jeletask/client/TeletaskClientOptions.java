@@ -0,0 +1,167 @@
+package io.github.ridiekel.jeletask.client;
+
+import io.github.ridiekel.jeletask.client.builder.message.messages.MessageSupport;
+import io.github.ridiekel.jeletask.client.transport.TransportType;
+
+import java.nio.file.Path;
+
+/**
+ * Tuning options for a {@link TeletaskClientImpl}. The defaults match the behaviour of the client before these options existed.
+ */
+public class TeletaskClientOptions {
+    private TransportType transportType = TransportType.BLOCKING;
+    private int pipelineDepth = 1;
+    private long acknowledgeTimeoutMillis = MessageSupport.ACK_WAIT_TIME;
+    private long eventTimeoutMillis = 2000;
+    private int maxWriteBatchBytes = 4096;
+    private long maxWriteLingerMicros = 0;
+    private ExecutionMode executionMode = ExecutionMode.PLATFORM_THREAD;
+    private int maxCachedContinuousSetFrames = 256;
+    private Path stateSnapshotFile;
+    private long stateSnapshotIntervalMillis = 30000;
+    private long getCoalesceWindowMicros = 0;
+    private int maxGetAttempts = 5;
+
+    public TeletaskClientOptions() {
+    }
+
+    public TeletaskClientOptions(TeletaskClientOptions other) {
+        this.transportType = other.transportType;
+        this.pipelineDepth = other.pipelineDepth;
+        this.acknowledgeTimeoutMillis = other.acknowledgeTimeoutMillis;
+        this.eventTimeoutMillis = other.eventTimeoutMillis;
+        this.maxWriteBatchBytes = other.maxWriteBatchBytes;
+        this.maxWriteLingerMicros = other.maxWriteLingerMicros;
+        this.executionMode = other.executionMode;
+        this.maxCachedContinuousSetFrames = other.maxCachedContinuousSetFrames;
+        this.stateSnapshotFile = other.stateSnapshotFile;
+        this.stateSnapshotIntervalMillis = other.stateSnapshotIntervalMillis;
+        this.getCoalesceWindowMicros = other.getCoalesceWindowMicros;
+        this.maxGetAttempts = other.maxGetAttempts;
+    }
+
+    public TransportType getTransportType() {
+        return this.transportType;
+    }
+
+    public void setTransportType(TransportType transportType) {
+        this.transportType = transportType;
+    }
+
+    /**
+     * @return The maximum amount of messages that are sent to the central unit without having received their acknowledge.
+     */
+    public int getPipelineDepth() {
+        return this.pipelineDepth;
+    }
+
+    public void setPipelineDepth(int pipelineDepth) {
+        this.pipelineDepth = pipelineDepth;
+    }
+
+    public long getAcknowledgeTimeoutMillis() {
+        return this.acknowledgeTimeoutMillis;
+    }
+
+    public void setAcknowledgeTimeoutMillis(long acknowledgeTimeoutMillis) {
+        this.acknowledgeTimeoutMillis = acknowledgeTimeoutMillis;
+    }
+
+    /**
+     * @return How long a get or set waits for the event with the state of the component, after the central unit acknowledged it.
+     */
+    public long getEventTimeoutMillis() {
+        return this.eventTimeoutMillis;
+    }
+
+    public void setEventTimeoutMillis(long eventTimeoutMillis) {
+        this.eventTimeoutMillis = eventTimeoutMillis;
+    }
+
+    /**
+     * @return The maximum amount of bytes of messages that are combined into one write to the connection.
+     */
+    public int getMaxWriteBatchBytes() {
+        return this.maxWriteBatchBytes;
+    }
+
+    public void setMaxWriteBatchBytes(int maxWriteBatchBytes) {
+        this.maxWriteBatchBytes = maxWriteBatchBytes;
+    }
+
+    /**
+     * @return How long a message may wait for other messages to be written together with it, 0 to write right away.
+     */
+    public long getMaxWriteLingerMicros() {
+        return this.maxWriteLingerMicros;
+    }
+
+    public void setMaxWriteLingerMicros(long maxWriteLingerMicros) {
+        this.maxWriteLingerMicros = maxWriteLingerMicros;
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return this.executionMode;
+    }
+
+    public void setExecutionMode(ExecutionMode executionMode) {
+        this.executionMode = executionMode;
+    }
+
+    /**
+     * @return The maximum amount of composed set frames that are kept for dimmers and sensors, which can be set to a lot of different values.
+     */
+    public int getMaxCachedContinuousSetFrames() {
+        return this.maxCachedContinuousSetFrames;
+    }
+
+    public void setMaxCachedContinuousSetFrames(int maxCachedContinuousSetFrames) {
+        this.maxCachedContinuousSetFrames = maxCachedContinuousSetFrames;
+    }
+
+    /**
+     * @return The file the last known states are kept in between restarts, null to not keep them.
+     */
+    public Path getStateSnapshotFile() {
+        return this.stateSnapshotFile;
+    }
+
+    public void setStateSnapshotFile(Path stateSnapshotFile) {
+        this.stateSnapshotFile = stateSnapshotFile;
+    }
+
+    /**
+     * @return How often the states are written to the snapshot file, they are only written when they changed.
+     */
+    public long getStateSnapshotIntervalMillis() {
+        return this.stateSnapshotIntervalMillis;
+    }
+
+    public void setStateSnapshotIntervalMillis(long stateSnapshotIntervalMillis) {
+        this.stateSnapshotIntervalMillis = stateSnapshotIntervalMillis;
+    }
+
+    /**
+     * @return How long gets of the same function are collected to be sent as one group get, 0 to send every get on its own.
+     * Central units that do not know group gets always send every get on its own.
+     */
+    public long getGetCoalesceWindowMicros() {
+        return this.getCoalesceWindowMicros;
+    }
+
+    public void setGetCoalesceWindowMicros(long getCoalesceWindowMicros) {
+        this.getCoalesceWindowMicros = getCoalesceWindowMicros;
+    }
+
+    /**
+     * @return How many times the state of a component is asked, by central units that do not know group gets, before it is given up on.
+     * A component that was given up on does not hold back {@link TeletaskClient#whenReady()}.
+     */
+    public int getMaxGetAttempts() {
+        return this.maxGetAttempts;
+    }
+
+    public void setMaxGetAttempts(int maxGetAttempts) {
+        this.maxGetAttempts = maxGetAttempts;
+    }
+}
@@ -2,6 +2,7 @@ package io.github.ridiekel.jeletask.client.builder.composer;
 
 import io.github.ridiekel.jeletask.client.builder.composer.config.configurables.CommandConfigurable;
 import io.github.ridiekel.jeletask.client.builder.composer.config.configurables.FunctionConfigurable;
+import io.github.ridiekel.jeletask.client.builder.message.EventFrame;
 import io.github.ridiekel.jeletask.client.builder.message.messages.MessageSupport;
 import io.github.ridiekel.jeletask.client.builder.message.messages.impl.EventMessage;
 import io.github.ridiekel.jeletask.client.builder.message.strategy.GroupGetStrategy;
@@ -10,17 +11,26 @@ import io.github.ridiekel.jeletask.model.spec.CentralUnit;
 import io.github.ridiekel.jeletask.model.spec.Command;
 import io.github.ridiekel.jeletask.model.spec.Function;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 
 public interface MessageHandler {
     byte[] compose(Command command, byte[] payload);
 
+    /**
+     * Writes the complete frame (header, payload and checksum) at the position of the buffer, without allocating.
+     * The position of the buffer is moved to the end of the frame.
+     */
+    void compose(Command command, PayloadWriter payload, ByteBuffer dst);
+
     CommandConfigurable<?> getCommandConfig(Command command);
 
     FunctionConfigurable getFunctionConfig(Function function);
 
     byte[] composeOutput(int... number);
 
+    void composeOutput(ByteBuffer dst, int number);
+
     int getStxValue();
 
     EventMessage parseEvent(CentralUnit config, byte[] message);
@@ -43,12 +53,31 @@ public interface MessageHandler {
 
     MessageSupport parse(CentralUnit config, byte[] message);
 
+    /**
+     * Decodes an event into the flyweight without allocating.
+     *
+     * @param frame  A complete frame with a correct checksum, only the first {@code length} bytes are used.
+     * @param target Receives the function, number and raw state of the event.
+     * @return false when the frame is not an event.
+     */
+    boolean decodeEvent(byte[] frame, int length, EventFrame target);
+
     int getOutputByteSize();
 
+    /**
+     * @return The most output numbers that fit in one frame of the command, after the function.
+     */
+    int getMaxOutputsPerFrame(Command command);
+
     List<EventMessage> createResponseEventMessage(CentralUnit config, Function function, OutputState... numbers);
 
     int getLogStateByte(String state);
 
+    @FunctionalInterface
+    interface PayloadWriter {
+        void write(ByteBuffer dst);
+    }
+
     class OutputState {
         private final int number;
         private final String state;
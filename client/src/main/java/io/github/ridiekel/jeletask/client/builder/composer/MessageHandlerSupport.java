@@ -4,37 +4,82 @@ import io.github.ridiekel.jeletask.client.builder.ByteUtilities;
 import io.github.ridiekel.jeletask.client.builder.composer.config.ConfigurationSupport;
 import io.github.ridiekel.jeletask.client.builder.composer.config.configurables.CommandConfigurable;
 import io.github.ridiekel.jeletask.client.builder.composer.config.configurables.FunctionConfigurable;
+import io.github.ridiekel.jeletask.client.builder.message.EventFrame;
 import io.github.ridiekel.jeletask.client.builder.message.messages.MessageSupport;
 import io.github.ridiekel.jeletask.model.spec.CentralUnit;
 import io.github.ridiekel.jeletask.model.spec.Command;
 import io.github.ridiekel.jeletask.model.spec.ComponentSpec;
 import io.github.ridiekel.jeletask.model.spec.Function;
-import io.github.ridiekel.jeletask.utilities.Bytes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
+
 public abstract class MessageHandlerSupport implements MessageHandler {
     /**
      * Logger responsible for logging and debugging statements.
      */
     private static final Logger LOG = LoggerFactory.getLogger(MessageHandlerSupport.class);
 
-    private final ConfigurationSupport<Command, CommandConfigurable<?>, Integer> commandConfiguration;
-    private final ConfigurationSupport<Function, FunctionConfigurable, Integer> functionConfiguration;
+    private final ConfigurationSupport<Command, CommandConfigurable<?>> commandConfiguration;
+    private final ConfigurationSupport<Function, FunctionConfigurable> functionConfiguration;
 
-    protected MessageHandlerSupport(ConfigurationSupport<Command, CommandConfigurable<?>, Integer> commandConfiguration, ConfigurationSupport<Function, FunctionConfigurable, Integer> functionConfiguration) {
+    /**
+     * The length of a frame is a single byte. It counts everything but the checksum.
+     */
+    public static final int MAX_FRAME_LENGTH = 255;
+
+    protected MessageHandlerSupport(ConfigurationSupport<Command, CommandConfigurable<?>> commandConfiguration, ConfigurationSupport<Function, FunctionConfigurable> functionConfiguration) {
         this.commandConfiguration = commandConfiguration;
         this.functionConfiguration = functionConfiguration;
     }
 
-    protected byte[] addCheckSum(byte[] messageBytes) {
+    @Override
+    public byte[] compose(Command command, byte[] payload) {
+        ByteBuffer dst = ByteBuffer.allocate(3 + this.getHeaderParameterLength(command) + payload.length + 1);
+        this.compose(command, d -> d.put(payload), dst);
+        return dst.array();
+    }
+
+    @Override
+    public void compose(Command command, PayloadWriter payload, ByteBuffer dst) {
+        int start = dst.position();
+        dst.put((byte) this.getStxValue());                                 // STX: This is the value indicating the start of a command/event
+        dst.put((byte) 0);                                                  // Length: filled in once the payload is written
+        dst.put((byte) this.getCommandConfig(command).getNumber());         // Command Number
+        this.composeHeaderParameters(command, dst);
+        payload.write(dst);
+        int end = dst.position();
+        if (end - start > MAX_FRAME_LENGTH) {
+            throw new IllegalArgumentException(command + " of " + (end - start) + " bytes does not fit in one frame of at most " + MAX_FRAME_LENGTH + " bytes");
+        }
+        dst.put(start + 1, (byte) (end - start));                           // Length: the length of the command without checksum
+
         // ChkSm: Command Number + Command Parameters + Length + STX
-        byte checkSumByte = 0;
-        for (byte messageByte : messageBytes) {
-            checkSumByte += messageByte;
+        byte checkSum = 0;
+        for (int i = start; i < end; i++) {
+            checkSum += dst.get(i);
         }
-        messageBytes = Bytes.concat(messageBytes, new byte[]{checkSumByte});
-        return messageBytes;
+        dst.put(checkSum);
+    }
+
+    /**
+     * @return The amount of bytes {@link #composeHeaderParameters(Command, ByteBuffer)} writes for the command.
+     */
+    protected int getHeaderParameterLength(Command command) {
+        return 0;
+    }
+
+    /**
+     * Writes the parameters a central unit expects between the command number and the payload.
+     */
+    protected void composeHeaderParameters(Command command, ByteBuffer dst) {
+    }
+
+    @Override
+    public int getMaxOutputsPerFrame(Command command) {
+        // STX, Length and Command Number, the header parameters and the function
+        return (MAX_FRAME_LENGTH - 3 - this.getHeaderParameterLength(command) - 1) / this.getOutputByteSize();
     }
 
     @Override
@@ -54,7 +99,7 @@ public abstract class MessageHandlerSupport implements MessageHandler {
 
     @Override
     public MessageSupport parse(CentralUnit config, byte[] message) {
-        int length = message[1];
+        int length = message[1] & 0xff;
         int command = message[2];
 
         byte[] payload = new byte[length - 3];
@@ -74,6 +119,30 @@ public abstract class MessageHandlerSupport implements MessageHandler {
         return this.getCommandConfig(this.getCommand(command)).parse(config, this, message, payload);
     }
 
+    @Override
+    public boolean decodeEvent(byte[] frame, int length, EventFrame target) {
+        if (!this.knows(Command.EVENT) || frame[2] != (byte) this.getCommandConfig(Command.EVENT).getNumber()) {
+            return false;
+        }
+        int counter = 3 + this.getHeaderParameterLength(Command.EVENT);
+        Function function = this.getFunction(frame[counter++] & 0xff);
+        int number = 0;
+        for (int i = 0; i < this.getOutputByteSize(); i++) {
+            number = (number << 8) | (frame[counter++] & 0xff);
+        }
+        counter += this.getEventParameterLength();
+        int rawState = this.getFunctionConfig(function).getStateCalculator().getNumberConverter().readInt(frame, counter);
+        target.set(frame, length, function, number, rawState);
+        return true;
+    }
+
+    /**
+     * @return The amount of bytes between the output number and the state of an event.
+     */
+    protected int getEventParameterLength() {
+        return 0;
+    }
+
     @Override
     public CommandConfigurable getCommandConfig(Command command) {
         return this.getCommandConfiguration().getConfigurable(command);
@@ -84,11 +153,11 @@ public abstract class MessageHandlerSupport implements MessageHandler {
         return this.getFunctionConfiguration().getConfigurable(function);
     }
 
-    public ConfigurationSupport<Command, CommandConfigurable<?>, Integer> getCommandConfiguration() {
+    public ConfigurationSupport<Command, CommandConfigurable<?>> getCommandConfiguration() {
         return this.commandConfiguration;
     }
 
-    public ConfigurationSupport<Function, FunctionConfigurable, Integer> getFunctionConfiguration() {
+    public ConfigurationSupport<Function, FunctionConfigurable> getFunctionConfiguration() {
         return this.functionConfiguration;
     }
 
@@ -112,17 +181,6 @@ public abstract class MessageHandlerSupport implements MessageHandler {
         return this.getFunctionConfiguration().knows(function);
     }
 
-    protected void setLengthAndCheckSum(byte[] rawBytes) {
-        rawBytes[1] = (byte) (rawBytes.length - 1);
-
-        byte checksum = 0;
-        for (byte rawByte : rawBytes) {
-            checksum += rawByte;
-        }
-
-        rawBytes[rawBytes.length - 1] = checksum;
-    }
-
     protected byte[] getStateBytes(CentralUnit config, Function function, OutputState outputState) {
         int number = outputState.getNumber();
         FunctionConfigurable functionConfig = this.getFunctionConfig(function);
@@ -9,21 +9,35 @@ import io.github.ridiekel.jeletask.model.spec.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.Map;
-
-public abstract class ConfigurationSupport<T, C extends Configurable<T>, K> {
+/**
+ * The configuration of the commands or functions of a central unit type, by their number and by the object itself.
+ * <p>
+ * Numbers are single bytes, both lookups are arrays that are filled when the configuration is created and never change afterwards.
+ */
+public abstract class ConfigurationSupport<T extends Enum<T>, C extends Configurable<T>> {
     /**
      * Logger responsible for logging and debugging statements.
      */
     private static final Logger LOG = LoggerFactory.getLogger(ConfigurationSupport.class);
 
-    private Map<K, C> configByKey;
-    private Map<T, C> configByObject;
-    private final Iterable<C> config;
-
-    public ConfigurationSupport(Iterable<C> config) {
-        this.config = config;
+    private static final int NUMBERS = 256;
+
+    private final Configurable<?>[] configByNumber = new Configurable<?>[NUMBERS];
+    private final Configurable<?>[] configByOrdinal;
+
+    public ConfigurationSupport(Class<T> type, Iterable<C> config) {
+        this.configByOrdinal = new Configurable<?>[type.getEnumConstants().length];
+        for (C configurable : config) {
+            int number = configurable.getNumber();
+            if (number < 0 || number >= NUMBERS) {
+                throw new IllegalArgumentException("Configuration " + this.getClass().getSimpleName() + " has number " + number + " for " + configurable.getObject() + ", which does not fit in a byte");
+            }
+            if (this.configByNumber[number] != null) {
+                throw new IllegalArgumentException("Configuration " + this.getClass().getSimpleName() + " has number " + number + " for both " + this.configByNumber[number].getObject() + " and " + configurable.getObject());
+            }
+            this.configByNumber[number] = configurable;
+            this.configByOrdinal[configurable.getObject().ordinal()] = configurable;
+        }
     }
 
     public static String getState(MessageHandler messageHandler, CentralUnit config, Function function, int number, byte[] payload, int startIndex) {
@@ -41,61 +55,38 @@ public abstract class ConfigurationSupport<T, C extends Configurable<T>, K> {
         return state;
     }
 
-    public T getConfigObject(K key) {
-        C configObject = this.getConfigByKey().get(key);
+    /**
+     * @param number The number as received, a negative number is the unsigned value of a signed byte.
+     */
+    public T getConfigObject(int number) {
+        C configObject = number >= Byte.MIN_VALUE && number < NUMBERS ? this.getByNumber(number & 0xff) : null;
 
         if (configObject == null) {
-            throw new IllegalStateException("Configuration " + this.getClass().getSimpleName() + " not found for key " + key);
+            throw new IllegalStateException("Configuration " + this.getClass().getSimpleName() + " not found for key " + number);
         }
 
         return configObject.getObject();
     }
 
     public C getConfigurable(T configObject) {
-        C state = this.getConfigByObject().get(configObject);
+        C state = this.getByOrdinal(configObject);
         if (state == null) {
             throw new IllegalStateException("Configuration " + this.getClass().getSimpleName() + " not found for configObject " + configObject);
         }
         return state;
     }
 
-    private Map<K, C> getConfigByKey() {
-        if (this.configByKey == null) {
-            this.configByKey = this.createConfigByKeyMap(this.getConfig());
-        }
-        return this.configByKey;
-    }
-
-    private Map<T, C> getConfigByObject() {
-        if (this.configByObject == null) {
-            this.configByObject = this.createConfigByObjectMap(this.getConfig());
-        }
-        return this.configByObject;
-    }
-
-    private Map<T, C> createConfigByObjectMap(Iterable<C> map) {
-        Map<T, C> configMap = new HashMap<>();
-        for (C value : map) {
-            configMap.put(value.getObject(), value);
-        }
-        return configMap;
+    @SuppressWarnings("unchecked")
+    private C getByNumber(int number) {
+        return (C) this.configByNumber[number];
     }
 
-    private Map<K, C> createConfigByKeyMap(Iterable<C> map) {
-        Map<K, C> configMap = new HashMap<>();
-        for (C value : map) {
-            configMap.put(this.getKey(value), value);
-        }
-        return configMap;
-    }
-
-    protected abstract K getKey(C configurable);
-
-    private Iterable<C> getConfig() {
-        return this.config;
+    @SuppressWarnings("unchecked")
+    private C getByOrdinal(T configObject) {
+        return (C) this.configByOrdinal[configObject.ordinal()];
     }
 
     public boolean knows(T command) {
-        return this.getConfigByObject().containsKey(command);
+        return this.getByOrdinal(command) != null;
     }
 }
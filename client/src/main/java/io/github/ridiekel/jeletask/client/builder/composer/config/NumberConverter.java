@@ -54,12 +54,27 @@ public enum NumberConverter {
         this.converter = converter;
     }
 
+    public int getByteSize() {
+        return this.byteSize;
+    }
+
     public byte[] read(byte[] source, int startIndex) {
         byte[] read = new byte[this.byteSize];
         System.arraycopy(source, startIndex, read, 0, this.byteSize);
         return read;
     }
 
+    /**
+     * Reads the unsigned value without allocating.
+     */
+    public int readInt(byte[] source, int startIndex) {
+        int value = 0;
+        for (int i = 0; i < this.byteSize; i++) {
+            value = (value << 8) | (source[startIndex + i] & 0xff);
+        }
+        return value;
+    }
+
     public Number convert(byte[] bytes) {
         return this.converter.toNumber(ByteBuffer.wrap(bytes));
     }
@@ -68,6 +83,27 @@ public enum NumberConverter {
         return this.converter.putBytes(ByteBuffer.allocate(this.byteSize), this.converter.cast(number)).array();
     }
 
+    /**
+     * Writes the lowest bytes of the value, like {@link #convert(Number)} does, without boxing.
+     */
+    public byte[] convert(int value) {
+        byte[] bytes = new byte[this.byteSize];
+        for (int i = this.byteSize - 1; i >= 0; i--) {
+            bytes[i] = (byte) value;
+            value >>>= 8;
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes the same bytes as {@link #convert(int)} at the position of the buffer.
+     */
+    public void write(ByteBuffer dst, int value) {
+        for (int i = this.byteSize - 1; i >= 0; i--) {
+            dst.put((byte) (value >>> (8 * i)));
+        }
+    }
+
     public byte[] convert(String value) {
         return this.convert(this.converter.convert(value));
     }
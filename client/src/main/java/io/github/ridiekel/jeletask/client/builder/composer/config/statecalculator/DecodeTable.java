@@ -0,0 +1,139 @@
+package io.github.ridiekel.jeletask.client.builder.composer.config.statecalculator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The decoded state of every value a state calculator can receive, computed once.
+ * <p>
+ * The states can only be precomputed for calculators that do not depend on the component, the component is null while building.
+ * Lookups are thread safe.
+ */
+public final class DecodeTable {
+    /**
+     * Logger responsible for logging and debugging statements.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(DecodeTable.class);
+
+    /**
+     * The amount of formatted states a {@link Encoding#COMPACT} table remembers.
+     */
+    private static final int STRING_CACHE_SIZE = 1024;
+
+    public enum Encoding {
+        /**
+         * Every state and its string are computed up front, a lookup never allocates.
+         * A table for two byte values keeps 65536 strings, which costs a few megabytes.
+         */
+        FULL,
+        /**
+         * States are stored as 16 bit offsets when they fit, only the recently used strings are kept.
+         */
+        COMPACT
+    }
+
+    private final StateCalculator calculator;
+    private final Encoding encoding;
+    private final int[] states;
+    private final char[] compactStates;
+    private final int offset;
+    private final String[] strings;
+    private final CachedString[] stringCache;
+
+    private DecodeTable(StateCalculator calculator, Encoding encoding, int[] states) {
+        this.calculator = calculator;
+        this.encoding = encoding;
+
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int state : states) {
+            min = Math.min(min, state);
+            max = Math.max(max, state);
+        }
+
+        if (encoding == Encoding.COMPACT && (long) max - min <= Character.MAX_VALUE) {
+            this.states = null;
+            this.offset = min;
+            this.compactStates = new char[states.length];
+            for (int raw = 0; raw < states.length; raw++) {
+                this.compactStates[raw] = (char) (states[raw] - min);
+            }
+        } else {
+            this.states = states;
+            this.offset = 0;
+            this.compactStates = null;
+        }
+
+        if (encoding == Encoding.FULL) {
+            this.strings = new String[states.length];
+            for (int raw = 0; raw < states.length; raw++) {
+                this.strings[raw] = calculator.format(null, states[raw]);
+            }
+            this.stringCache = null;
+        } else {
+            this.strings = null;
+            this.stringCache = new CachedString[Math.min(STRING_CACHE_SIZE, states.length)];
+        }
+    }
+
+    /**
+     * @param calculator A calculator that does not depend on the component.
+     */
+    public static DecodeTable build(StateCalculator calculator, Encoding encoding) {
+        long start = System.nanoTime();
+        int[] states = new int[1 << (calculator.getNumberConverter().getByteSize() * 8)];
+        for (int raw = 0; raw < states.length; raw++) {
+            states[raw] = calculator.decode(null, raw);
+        }
+        DecodeTable table = new DecodeTable(calculator, encoding, states);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Built {} decode table for {} with {} values, {} bytes in {}us", encoding, calculator.getClass().getSimpleName(), states.length, table.getMemoryBytes(), (System.nanoTime() - start) / 1000);
+        }
+        return table;
+    }
+
+    public int decode(int raw) {
+        return this.states == null ? this.compactStates[raw] + this.offset : this.states[raw];
+    }
+
+    /**
+     * @return The string of the decoded state.
+     */
+    public String format(int raw) {
+        if (this.strings != null) {
+            return this.strings[raw];
+        }
+        int index = raw & (this.stringCache.length - 1);
+        CachedString cached = this.stringCache[index];
+        if (cached == null || cached.raw != raw) {
+            cached = new CachedString(raw, this.calculator.format(null, this.decode(raw)));
+            this.stringCache[index] = cached;
+        }
+        return cached.state;
+    }
+
+    public Encoding getEncoding() {
+        return this.encoding;
+    }
+
+    /**
+     * @return The approximate size of the arrays of the table, without the strings.
+     */
+    public long getMemoryBytes() {
+        long bytes = this.states == null ? this.compactStates.length * 2L : this.states.length * 4L;
+        return bytes + (this.strings == null ? this.stringCache.length : this.strings.length) * 4L;
+    }
+
+    /**
+     * Immutable, so a lookup never sees a value with the string of another one.
+     */
+    private static final class CachedString {
+        private final int raw;
+        private final String state;
+
+        private CachedString(int raw, String state) {
+            this.raw = raw;
+            this.state = state;
+        }
+    }
+}
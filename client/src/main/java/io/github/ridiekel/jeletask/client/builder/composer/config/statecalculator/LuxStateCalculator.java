@@ -3,31 +3,32 @@ package io.github.ridiekel.jeletask.client.builder.composer.config.statecalculat
 import io.github.ridiekel.jeletask.client.builder.composer.config.NumberConverter;
 import io.github.ridiekel.jeletask.model.spec.ComponentSpec;
 
+/**
+ * The state is the amount of lux.
+ */
 public class LuxStateCalculator extends SimpleStateCalculator {
     public LuxStateCalculator(NumberConverter numberConverter) {
         super(numberConverter);
     }
 
     @Override
-    public String convertGet(ComponentSpec component, byte[] value) {
-        long longValue = this.getNumberConverter().convert(value).longValue();
-        double exponent = longValue / 40d;
+    public int decode(ComponentSpec component, int raw) {
+        double exponent = raw / 40d;
         double powered = Math.pow(10, exponent);
         double luxValue = powered - 1;
-        return String.valueOf(Math.round(luxValue));
+        return (int) Math.min(Integer.MAX_VALUE, Math.round(luxValue));
     }
 
     @Override
-    public byte[] convertSet(ComponentSpec component, String value) {
-        Long longValue = Long.valueOf(value);
-        long inBetween = longValue + 1;
+    public int encode(ComponentSpec component, int state) {
+        long inBetween = state + 1L;
         double log10 = Math.log10(inBetween);
         double convertedValue = log10 * 40;
-        return this.getNumberConverter().convert(Math.round(convertedValue));
+        return (int) Math.round(convertedValue);
     }
 
     @Override
     public String getDefaultState(ComponentSpec component) {
         return "3547";
     }
-}
\ No newline at end of file
+}
@@ -3,36 +3,70 @@ package io.github.ridiekel.jeletask.client.builder.composer.config.statecalculat
 import io.github.ridiekel.jeletask.client.builder.composer.config.NumberConverter;
 import io.github.ridiekel.jeletask.model.spec.ComponentSpec;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Named states, the state is the index of the mapping.
+ */
 public class MappingStateCalculator extends SimpleStateCalculator {
-    private final Map<String, String> byName = new HashMap<>();
-    private final Map<Integer, String> byNumber = new HashMap<>();
+    private final Map<String, Integer> byName = new HashMap<>();
+    private final String[] names;
+    private final int[] writes;
+    private int[] byNumber = new int[0];
 
     public MappingStateCalculator(NumberConverter numberConverter, StateMapping... mappings) {
         super(numberConverter);
+        this.names = new String[mappings.length];
+        this.writes = new int[mappings.length];
         this.register(mappings);
     }
 
     private void register(StateMapping... mappings) {
-        for (StateMapping mapping : mappings) {
+        for (int i = 0; i < mappings.length; i++) {
+            StateMapping mapping = mappings[i];
             if (mapping.getRead() != null) {
-                this.byName.put(mapping.getName().toUpperCase(), String.valueOf(mapping.getWrite()));
-                this.byNumber.put(mapping.getRead().intValue(), mapping.getName().toUpperCase());
-                this.byNumber.put(mapping.getWrite().intValue(), mapping.getName().toUpperCase());
+                this.names[i] = mapping.getName().toUpperCase().intern();
+                this.writes[i] = mapping.getWrite().intValue();
+                this.byName.put(this.names[i], i);
+                this.putNumber(mapping.getRead().intValue(), i);
+                this.putNumber(mapping.getWrite().intValue(), i);
             }
         }
     }
 
+    private void putNumber(int number, int state) {
+        if (number >= this.byNumber.length) {
+            int length = this.byNumber.length;
+            this.byNumber = Arrays.copyOf(this.byNumber, number + 1);
+            Arrays.fill(this.byNumber, length, this.byNumber.length, NO_STATE);
+        }
+        this.byNumber[number] = state;
+    }
+
+    @Override
+    public int decode(ComponentSpec component, int raw) {
+        return raw >= 0 && raw < this.byNumber.length ? this.byNumber[raw] : NO_STATE;
+    }
+
+    @Override
+    public int encode(ComponentSpec component, int state) {
+        if (state < 0 || state >= this.names.length || this.names[state] == null) {
+            throw new IllegalArgumentException("Unknown state " + state + ", expected one of " + this.byName.keySet());
+        }
+        return this.writes[state];
+    }
+
     @Override
-    public String convertGet(ComponentSpec component, byte[] value) {
-        return this.byNumber.get(this.getNumberConverter().convert(value).intValue());
+    public String format(ComponentSpec component, int state) {
+        return state >= 0 && state < this.names.length ? this.names[state] : null;
     }
 
     @Override
-    public byte[] convertSet(ComponentSpec component, String value) {
-        return super.convertSet(component, String.valueOf(this.byName.get(value)));
+    public int parse(ComponentSpec component, String state) {
+        Integer index = this.byName.get(state);
+        return index == null ? NO_STATE : index;
     }
 
     @Override
@@ -5,6 +5,7 @@ import io.github.ridiekel.jeletask.model.spec.ComponentSpec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.Optional;
 
@@ -22,6 +23,31 @@ public class SensorStateCalculator extends SimpleStateCalculator {
         );
     }
 
+    @Override
+    public int decode(ComponentSpec component, int raw) {
+        return this.getStateCalculator(component).decode(component, raw);
+    }
+
+    @Override
+    public int encode(ComponentSpec component, int state) {
+        return this.getStateCalculator(component).encode(component, state);
+    }
+
+    @Override
+    public String format(ComponentSpec component, int state) {
+        return this.getStateCalculator(component).format(component, state);
+    }
+
+    @Override
+    public int parse(ComponentSpec component, String state) {
+        return this.getStateCalculator(component).parse(component, state);
+    }
+
+    @Override
+    public String convertGet(ComponentSpec component, int raw) {
+        return this.getStateCalculator(component).convertGet(component, raw);
+    }
+
     @Override
     public String convertGet(ComponentSpec component, byte[] value) {
         return this.getStateCalculator(component).convertGet(component, value);
@@ -32,6 +58,11 @@ public class SensorStateCalculator extends SimpleStateCalculator {
         return this.getStateCalculator(component).convertSet(component, value);
     }
 
+    @Override
+    public void writeSet(ComponentSpec component, String value, ByteBuffer dst) {
+        this.getStateCalculator(component).writeSet(component, value, dst);
+    }
+
     @Override
     public String getDefaultState(ComponentSpec component) {
         return this.getStateCalculator(component).getDefaultState(component);
@@ -41,6 +72,26 @@ public class SensorStateCalculator extends SimpleStateCalculator {
         return Optional.ofNullable(this.sensorTypeCalculators.get(component.getType())).orElseGet(() -> {
             LOG.warn(String.format("State calculator not found for component:\n\n        %s\n", component));
             return new StateCalculator() {
+                @Override
+                public int decode(ComponentSpec component, int raw) {
+                    return NO_STATE;
+                }
+
+                @Override
+                public int encode(ComponentSpec component, int state) {
+                    return 0;
+                }
+
+                @Override
+                public String format(ComponentSpec component, int state) {
+                    return null;
+                }
+
+                @Override
+                public int parse(ComponentSpec component, String state) {
+                    return NO_STATE;
+                }
+
                 @Override
                 public String convertGet(ComponentSpec component, byte[] value) {
                     return null;
@@ -51,6 +102,10 @@ public class SensorStateCalculator extends SimpleStateCalculator {
                     return new byte[0];
                 }
 
+                @Override
+                public void writeSet(ComponentSpec component, String value, ByteBuffer dst) {
+                }
+
                 @Override
                 public NumberConverter getNumberConverter() {
                     return null;
@@ -4,6 +4,17 @@ import io.github.ridiekel.jeletask.client.builder.composer.config.NumberConverte
 import io.github.ridiekel.jeletask.model.spec.ComponentSpec;
 
 public class SimpleStateCalculator implements StateCalculator {
+    /**
+     * The states of a single byte, formatted once.
+     */
+    private static final String[] NUMBERS = new String[256];
+
+    static {
+        for (int i = 0; i < NUMBERS.length; i++) {
+            NUMBERS[i] = String.valueOf(i).intern();
+        }
+    }
+
     private final NumberConverter numberConverter;
 
     public SimpleStateCalculator(NumberConverter numberConverter) {
@@ -11,14 +22,30 @@ public class SimpleStateCalculator implements StateCalculator {
     }
 
     @Override
-    public String convertGet(ComponentSpec component, byte[] value) {
-        Number number = this.numberConverter.convert(value);
-        return String.valueOf(number.intValue() == -1 ? 255 : number);
+    public int decode(ComponentSpec component, int raw) {
+        return raw;
+    }
+
+    @Override
+    public int encode(ComponentSpec component, int state) {
+        return state;
     }
 
     @Override
-    public byte[] convertSet(ComponentSpec component, String value) {
-        return value == null ? null : this.numberConverter.convert(value);
+    public String format(ComponentSpec component, int state) {
+        return formatNumber(state);
+    }
+
+    @Override
+    public int parse(ComponentSpec component, String state) {
+        return Integer.parseInt(state);
+    }
+
+    protected static String formatNumber(int number) {
+        if (number == NO_STATE) {
+            return null;
+        }
+        return number >= 0 && number < NUMBERS.length ? NUMBERS[number] : String.valueOf(number);
     }
 
     @Override
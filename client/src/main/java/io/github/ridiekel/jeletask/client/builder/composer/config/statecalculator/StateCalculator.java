@@ -3,10 +3,66 @@ package io.github.ridiekel.jeletask.client.builder.composer.config.statecalculat
 import io.github.ridiekel.jeletask.client.builder.composer.config.NumberConverter;
 import io.github.ridiekel.jeletask.model.spec.ComponentSpec;
 
+import java.nio.ByteBuffer;
+
+/**
+ * Converts between the value a central unit sends or expects and the state of a component.
+ * <p>
+ * The primitive methods work with the state as an int: the index of a named state (e.g. ON, OFF), or its numeric value.
+ * {@link #format(ComponentSpec, int)} turns it into the state string, named states and small numbers always return the same String instance.
+ * The string methods are adapters on top of the primitive ones.
+ */
 public interface StateCalculator {
-    String convertGet(ComponentSpec component, byte[] value);
+    /**
+     * The value of an unknown state.
+     */
+    int NO_STATE = Integer.MIN_VALUE;
+
+    /**
+     * @param raw The unsigned value as received.
+     * @return The state, or {@link #NO_STATE}.
+     */
+    int decode(ComponentSpec component, int raw);
+
+    /**
+     * @return The value to send to the central unit.
+     */
+    int encode(ComponentSpec component, int state);
+
+    /**
+     * @return The state string, or null for {@link #NO_STATE}.
+     */
+    String format(ComponentSpec component, int state);
+
+    /**
+     * @return The state, or {@link #NO_STATE} when the string is not a known state.
+     */
+    int parse(ComponentSpec component, String state);
+
+    /**
+     * @param raw The unsigned value as received.
+     * @return The state string, or null when the value is not a known state.
+     */
+    default String convertGet(ComponentSpec component, int raw) {
+        return this.format(component, this.decode(component, raw));
+    }
+
+    default String convertGet(ComponentSpec component, byte[] value) {
+        return this.convertGet(component, this.getNumberConverter().readInt(value, 0));
+    }
+
+    default byte[] convertSet(ComponentSpec component, String value) {
+        return value == null ? null : this.getNumberConverter().convert(this.encode(component, this.parse(component, value)));
+    }
 
-    byte[] convertSet(ComponentSpec component, String value);
+    /**
+     * Writes the same bytes as {@link #convertSet(ComponentSpec, String)} at the position of the buffer, without creating an array.
+     */
+    default void writeSet(ComponentSpec component, String value, ByteBuffer dst) {
+        if (value != null) {
+            this.getNumberConverter().write(dst, this.encode(component, this.parse(component, value)));
+        }
+    }
 
     NumberConverter getNumberConverter();
 
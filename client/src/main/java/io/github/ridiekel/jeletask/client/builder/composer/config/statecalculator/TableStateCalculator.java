@@ -0,0 +1,65 @@
+package io.github.ridiekel.jeletask.client.builder.composer.config.statecalculator;
+
+import io.github.ridiekel.jeletask.client.builder.composer.config.NumberConverter;
+import io.github.ridiekel.jeletask.model.spec.ComponentSpec;
+
+/**
+ * Decodes received values through a {@link DecodeTable} of the calculator, everything else is done by the calculator itself.
+ */
+public class TableStateCalculator implements StateCalculator {
+    private final StateCalculator calculator;
+    private final DecodeTable table;
+
+    public TableStateCalculator(StateCalculator calculator, DecodeTable.Encoding encoding) {
+        this.calculator = calculator;
+        this.table = DecodeTable.build(calculator, encoding);
+    }
+
+    @Override
+    public int decode(ComponentSpec component, int raw) {
+        return this.table.decode(raw);
+    }
+
+    @Override
+    public String convertGet(ComponentSpec component, int raw) {
+        return this.table.format(raw);
+    }
+
+    @Override
+    public int encode(ComponentSpec component, int state) {
+        return this.calculator.encode(component, state);
+    }
+
+    @Override
+    public String format(ComponentSpec component, int state) {
+        return this.calculator.format(component, state);
+    }
+
+    @Override
+    public int parse(ComponentSpec component, String state) {
+        return this.calculator.parse(component, state);
+    }
+
+    @Override
+    public NumberConverter getNumberConverter() {
+        return this.calculator.getNumberConverter();
+    }
+
+    @Override
+    public boolean isValidState(String state) {
+        return this.calculator.isValidState(state);
+    }
+
+    @Override
+    public String getDefaultState(ComponentSpec component) {
+        return this.calculator.getDefaultState(component);
+    }
+
+    public StateCalculator getCalculator() {
+        return this.calculator;
+    }
+
+    public DecodeTable getTable() {
+        return this.table;
+    }
+}
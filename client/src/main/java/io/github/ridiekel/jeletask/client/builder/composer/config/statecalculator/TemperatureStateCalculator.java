@@ -3,6 +3,9 @@ package io.github.ridiekel.jeletask.client.builder.composer.config.statecalculat
 import io.github.ridiekel.jeletask.client.builder.composer.config.NumberConverter;
 import io.github.ridiekel.jeletask.model.spec.ComponentSpec;
 
+/**
+ * The state is the temperature in tenths of a degree.
+ */
 public class TemperatureStateCalculator extends SimpleStateCalculator {
     private final double divide;
     private final int subtract;
@@ -14,23 +17,30 @@ public class TemperatureStateCalculator extends SimpleStateCalculator {
     }
 
     @Override
-    public String convertGet(ComponentSpec component, byte[] value) {
-        long base = this.getNumberConverter().convert(value).longValue();
-        double divided = base / this.divide;
+    public int decode(ComponentSpec component, int raw) {
+        double divided = raw / this.divide;
         double subtracted = divided - this.subtract;
-        return String.valueOf(subtracted);
+        return (int) Math.round(subtracted * 10);
     }
 
     @Override
-    public byte[] convertSet(ComponentSpec component, String value) {
-        Long base = Long.valueOf(value);
-        long added = base + this.subtract;
-        double multiplied = added * this.divide;
-        return this.getNumberConverter().convert(Math.round(multiplied));
+    public int encode(ComponentSpec component, int state) {
+        double added = state / 10d + this.subtract;
+        return (int) Math.round(added * this.divide);
+    }
+
+    @Override
+    public String format(ComponentSpec component, int state) {
+        return String.valueOf(state / 10d);
+    }
+
+    @Override
+    public int parse(ComponentSpec component, String state) {
+        return (int) Math.round(Double.parseDouble(state) * 10);
     }
 
     @Override
     public String getDefaultState(ComponentSpec component) {
         return "18";
     }
-}
\ No newline at end of file
+}
@@ -16,9 +16,9 @@ import io.github.ridiekel.jeletask.model.spec.Function;
 
 import java.util.List;
 
-public class MicrosCommandConfiguration extends ConfigurationSupport<Command, CommandConfigurable<?>, Integer> {
+public class MicrosCommandConfiguration extends ConfigurationSupport<Command, CommandConfigurable<?>> {
     public MicrosCommandConfiguration() {
-        super(List.of(
+        super(Command.class, List.of(
                 new MicrosSetCommandConfigurable(),
                 new MicrosGetCommandConfigurable(),
                 new LogCommandConfigurable(3, false, "Fnc", "Sate"),
@@ -26,11 +26,6 @@ public class MicrosCommandConfiguration extends ConfigurationSupport<Command, Co
         );
     }
 
-    @Override
-    protected Integer getKey(CommandConfigurable<?> configurable) {
-        return configurable.getNumber();
-    }
-
     private static class MicrosEventCommandConfigurable extends EventCommandConfigurable {
         public MicrosEventCommandConfigurable() {
             super(8, false, "Fnc", "Output", "State");
@@ -4,15 +4,15 @@ import io.github.ridiekel.jeletask.client.TeletaskClientImpl;
 import io.github.ridiekel.jeletask.client.builder.composer.MessageHandlerSupport;
 import io.github.ridiekel.jeletask.client.builder.message.executor.MessageExecutor;
 import io.github.ridiekel.jeletask.client.builder.message.messages.impl.EventMessage;
-import io.github.ridiekel.jeletask.client.builder.message.messages.impl.GetMessage;
 import io.github.ridiekel.jeletask.client.builder.message.messages.impl.LogMessage;
+import io.github.ridiekel.jeletask.client.builder.message.strategy.GetScheduler;
 import io.github.ridiekel.jeletask.client.builder.message.strategy.GroupGetStrategy;
 import io.github.ridiekel.jeletask.client.builder.message.strategy.KeepAliveStrategy;
 import io.github.ridiekel.jeletask.model.spec.CentralUnit;
 import io.github.ridiekel.jeletask.model.spec.Command;
 import io.github.ridiekel.jeletask.model.spec.Function;
-import io.github.ridiekel.jeletask.utilities.Bytes;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 
 public class MicrosMessageHandler extends MessageHandlerSupport {
@@ -23,17 +23,6 @@ public class MicrosMessageHandler extends MessageHandlerSupport {
         super(new MicrosCommandConfiguration(), new MicrosFunctionConfiguration());
     }
 
-    @Override
-    public byte[] compose(Command command, byte[] payload) {
-        int msgStx = this.getStxValue();                                    // STX: This is the value indicating the start of a command/event
-        int msgLength = 3 + payload.length;                                 // Length: the length of the command without checksum
-        int msgCommand = this.getCommandConfig(command).getNumber();        // Command Number
-
-        byte[] messageBytes = Bytes.concat(new byte[]{(byte) msgStx, (byte) msgLength, (byte) msgCommand}, payload);
-
-        return this.addCheckSum(messageBytes);
-    }
-
     @Override
     public byte[] composeOutput(int... numbers) {
         byte[] outputs = new byte[numbers.length];
@@ -44,6 +33,11 @@ public class MicrosMessageHandler extends MessageHandlerSupport {
         return outputs;
     }
 
+    @Override
+    public void composeOutput(ByteBuffer dst, int number) {
+        dst.put((byte) number);
+    }
+
     @Override
     public EventMessage parseEvent(CentralUnit config, byte[] message) {
         //02 09 10 01 03 00 31
@@ -75,16 +69,15 @@ public class MicrosMessageHandler extends MessageHandlerSupport {
     public List<EventMessage> createResponseEventMessage(CentralUnit config, Function function, OutputState... numbers) {
         OutputState outputState = numbers[0];
 
-        byte[] rawBytes = new byte[]{(byte) this.getStxValue(), 0};
-        rawBytes = Bytes.concat(rawBytes, this.getCommandConfig(Command.EVENT).getBytes());
-        rawBytes = Bytes.concat(rawBytes, this.getFunctionConfig(function).getBytes());
-        rawBytes = Bytes.concat(rawBytes, new byte[]{(byte) outputState.getNumber()});
-        rawBytes = Bytes.concat(rawBytes, this.getStateBytes(config, function, outputState));
-        rawBytes = Bytes.concat(rawBytes, new byte[]{0}); // The furture checksum
-
-        this.setLengthAndCheckSum(rawBytes);
+        byte[] state = this.getStateBytes(config, function, outputState);
+        ByteBuffer rawBytes = ByteBuffer.allocate(3 + 1 + 1 + state.length + 1);
+        this.compose(Command.EVENT, dst -> {
+            dst.put((byte) this.getFunctionConfig(function).getNumber());
+            this.composeOutput(dst, outputState.getNumber());
+            dst.put(state);
+        }, rawBytes);
 
-        return List.of(new EventMessage(config, rawBytes, function, outputState.getNumber(), outputState.getState()));
+        return List.of(new EventMessage(config, rawBytes.array(), function, outputState.getNumber(), outputState.getState()));
     }
 
     private static class MicrosKeepAliveStrategy implements KeepAliveStrategy {
@@ -102,30 +95,9 @@ public class MicrosMessageHandler extends MessageHandlerSupport {
     private static class MicrosGroupGetStrategy implements GroupGetStrategy {
         @Override
         public void execute(TeletaskClientImpl client, Function function, int... numbers) {
-            // For some reason the microsplus does not always send an event after requesting the state of a component.
-            // As a workaround, we keep trying until we get the state of all components.
-            // Sleeping between get messages seems to decrease the amount of failures.
-            // Problem with this approach is that we have no idea when the server actually will be able to completely start.
-            while (this.stateEmptyCount(client.getConfig(), function, numbers) > 0) {
-                for (int number : numbers) {
-                    if (client.getConfig().getComponent(function, number).getState() == null) {
-                        new MessageExecutor(new GetMessage(client.getConfig(), function, number), client).run();
-                        try {
-                            Thread.sleep(150);
-                        } catch (InterruptedException e) {
-                            e.printStackTrace();
-                        }
-                    }
-                }
-            }
-        }
-
-        private int stateEmptyCount(CentralUnit config, Function function, int... numbers) {
-            int counter = 0;
-            for (int number : numbers) {
-                counter += config.getComponent(function, number).getState() == null ? 1 : 0;
-            }
-            return counter;
+            // The micros does not answer a group get, and does not always send an event after a get.
+            // The scheduler paces the gets to how fast the central unit answers and gives up on components that never do.
+            new GetScheduler(client, function, numbers).run();
         }
     }
 }
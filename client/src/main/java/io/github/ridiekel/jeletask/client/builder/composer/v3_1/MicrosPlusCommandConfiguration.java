@@ -18,9 +18,9 @@ import io.github.ridiekel.jeletask.model.spec.Function;
 
 import java.util.List;
 
-public class MicrosPlusCommandConfiguration extends ConfigurationSupport<Command, CommandConfigurable<?>, Integer> {
+public class MicrosPlusCommandConfiguration extends ConfigurationSupport<Command, CommandConfigurable<?>> {
     public MicrosPlusCommandConfiguration() {
-        super(List.of(
+        super(Command.class, List.of(
                 new MicrosPlusSetCommandConfigurable(),
                 new MicrosPlusGetCommandConfigurable(),
                 new GroupGetCommandConfigurable(9, true, "Central Unit", "Fnc", "Output Part 1", "Output Part 2"),
@@ -30,11 +30,6 @@ public class MicrosPlusCommandConfiguration extends ConfigurationSupport<Command
         ));
     }
 
-    @Override
-    protected Integer getKey(CommandConfigurable<?> configurable) {
-        return configurable.getNumber();
-    }
-
     private static class MicrosPlusEventCommandConfigurable extends EventCommandConfigurable {
         public MicrosPlusEventCommandConfigurable() {
             super(16, true, "Central Unit", "Fnc", "Output Part 1", "Output Part 2", "Err State", "State", "State");
@@ -3,6 +3,7 @@ package io.github.ridiekel.jeletask.client.builder.composer.v3_1;
 import io.github.ridiekel.jeletask.client.TeletaskClientImpl;
 import io.github.ridiekel.jeletask.client.builder.composer.MessageHandlerSupport;
 import io.github.ridiekel.jeletask.client.builder.message.executor.MessageExecutor;
+import io.github.ridiekel.jeletask.client.builder.message.messages.MessageSupport;
 import io.github.ridiekel.jeletask.client.builder.message.messages.impl.EventMessage;
 import io.github.ridiekel.jeletask.client.builder.message.messages.impl.GroupGetMessage;
 import io.github.ridiekel.jeletask.client.builder.message.messages.impl.KeepAliveMessage;
@@ -12,7 +13,6 @@ import io.github.ridiekel.jeletask.model.spec.CentralUnit;
 import io.github.ridiekel.jeletask.model.spec.Command;
 import io.github.ridiekel.jeletask.model.spec.ComponentSpec;
 import io.github.ridiekel.jeletask.model.spec.Function;
-import io.github.ridiekel.jeletask.utilities.Bytes;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
@@ -28,34 +28,34 @@ public class MicrosPlusMessageHandler extends MessageHandlerSupport {
     }
 
     @Override
-    public byte[] compose(Command command, byte[] payload) {
-        boolean needsCentralUnitParam = this.getCommandConfig(command).needsCentralUnitParameter();
-
-        int msgStx = this.getStxValue();                                    // STX: This is the value indicating the start of a command/event
-        int msgLength = (needsCentralUnitParam ? 4 : 3) + payload.length;   // Length: the length of the command without checksum
-        int msgCommand = this.getCommandConfig(command).getNumber();        // Command Number
-        int msgCentralUnit = CENTRAL_UNIT;                                  // For now, we only support 1 central unit
-
-        byte[] begin = {(byte) msgStx, (byte) msgLength, (byte) msgCommand};
-        byte[] messageBytes = null;
-        if (needsCentralUnitParam) {
-            messageBytes = Bytes.concat(begin, new byte[]{(byte) msgCentralUnit}, payload);
-        } else {
-            messageBytes = Bytes.concat(begin, payload);
+    protected int getHeaderParameterLength(Command command) {
+        return this.getCommandConfig(command).needsCentralUnitParameter() ? 1 : 0;
+    }
+
+    @Override
+    protected void composeHeaderParameters(Command command, ByteBuffer dst) {
+        if (this.getCommandConfig(command).needsCentralUnitParameter()) {
+            dst.put((byte) CENTRAL_UNIT);                                   // For now, we only support 1 central unit
         }
+    }
 
-        return this.addCheckSum(messageBytes);
+    @Override
+    protected int getEventParameterLength() {
+        return 1;                                                           // The error state
     }
 
     @Override
     public byte[] composeOutput(int... numbers) {
-        byte[] outputs = new byte[numbers.length * 2];
-        for (int i = 0; i < numbers.length; i++) {
-            byte[] bytes = ByteBuffer.allocate(2).putShort((short) numbers[i]).array();
-            outputs[i * 2] = bytes[0];
-            outputs[(i * 2) + 1] = bytes[1];
+        ByteBuffer outputs = ByteBuffer.allocate(numbers.length * 2);
+        for (int number : numbers) {
+            this.composeOutput(outputs, number);
         }
-        return outputs;
+        return outputs.array();
+    }
+
+    @Override
+    public void composeOutput(ByteBuffer dst, int number) {
+        dst.putShort((short) number);
     }
 
     @Override
@@ -96,22 +96,18 @@ public class MicrosPlusMessageHandler extends MessageHandlerSupport {
         List<EventMessage> eventMessages = new ArrayList<>();
 
         for (OutputState number : numbers) {
-            byte[] numberBytes = this.composeOutput(number.getNumber());
-
-            byte[] rawBytes = new byte[]{(byte) this.getStxValue(), 0};
-            rawBytes = Bytes.concat(rawBytes, this.getCommandConfig(Command.EVENT).getBytes());
-            rawBytes = Bytes.concat(rawBytes, new byte[]{CENTRAL_UNIT});
-            rawBytes = Bytes.concat(rawBytes, this.getFunctionConfig(function).getBytes());
-            rawBytes = Bytes.concat(rawBytes, numberBytes);
-            rawBytes = Bytes.concat(rawBytes, new byte[]{0});
-            rawBytes = Bytes.concat(rawBytes, this.getStateBytes(config, function, number));
-            rawBytes = Bytes.concat(rawBytes, new byte[]{0});
-
-            this.setLengthAndCheckSum(rawBytes);
+            byte[] state = this.getStateBytes(config, function, number);
+            ByteBuffer rawBytes = ByteBuffer.allocate(4 + 1 + this.getOutputByteSize() + 1 + state.length + 1);
+            this.compose(Command.EVENT, dst -> {
+                dst.put((byte) this.getFunctionConfig(function).getNumber());
+                this.composeOutput(dst, number.getNumber());
+                dst.put((byte) 0);                                          // ErrorState
+                dst.put(state);
+            }, rawBytes);
 
             ComponentSpec component = config.getComponent(function, number.getNumber());
 
-            eventMessages.add(new EventMessage(config, rawBytes, function, number.getNumber(), component.getState()));
+            eventMessages.add(new EventMessage(config, rawBytes.array(), function, number.getNumber(), component.getState()));
         }
 
 
@@ -133,7 +129,8 @@ public class MicrosPlusMessageHandler extends MessageHandlerSupport {
     private static class MicrosPlusGroupGetStrategy implements GroupGetStrategy {
         @Override
         public void execute(TeletaskClientImpl client, Function function, int... numbers) {
-            new MessageExecutor(new GroupGetMessage(client.getConfig(), function, numbers), client).run();
+            // The chunks are sent right after each other, the events of all of them update the components
+            MessageSupport.executeAll(client, GroupGetMessage.chunked(client.getConfig(), function, numbers));
         }
     }
 }
@@ -0,0 +1,82 @@
+package io.github.ridiekel.jeletask.client.builder.message;
+
+import io.github.ridiekel.jeletask.client.builder.composer.MessageHandler;
+import io.github.ridiekel.jeletask.client.builder.composer.config.statecalculator.StateCalculator;
+import io.github.ridiekel.jeletask.client.builder.message.messages.impl.EventMessage;
+import io.github.ridiekel.jeletask.model.spec.CentralUnit;
+import io.github.ridiekel.jeletask.model.spec.ComponentSpec;
+import io.github.ridiekel.jeletask.model.spec.Function;
+
+import java.util.Arrays;
+
+/**
+ * A received event, decoded into the function, number and raw state value without creating an {@link EventMessage}.
+ * <p>
+ * One instance is reused for all events of a connection, so it is only valid while the {@link Listener} is called.
+ * Use {@link #toEventMessage(CentralUnit)} to get an event that can be kept.
+ */
+public class EventFrame {
+    private final MessageHandler messageHandler;
+
+    private byte[] frame;
+    private int length;
+    private Function function;
+    private int number;
+    private int rawState;
+
+    public EventFrame(MessageHandler messageHandler) {
+        this.messageHandler = messageHandler;
+    }
+
+    /**
+     * Called by the message handler after decoding an event.
+     */
+    public void set(byte[] frame, int length, Function function, int number, int rawState) {
+        this.frame = frame;
+        this.length = length;
+        this.function = function;
+        this.number = number;
+        this.rawState = rawState;
+    }
+
+    public Function getFunction() {
+        return this.function;
+    }
+
+    public int getNumber() {
+        return this.number;
+    }
+
+    /**
+     * @return The state as it was received, before it is converted by the state calculator of the function.
+     */
+    public int getRawState() {
+        return this.rawState;
+    }
+
+    /**
+     * @return The state converted by the state calculator of the function.
+     */
+    public String getState(ComponentSpec component) {
+        StateCalculator stateCalculator = this.messageHandler.getFunctionConfig(this.function).getStateCalculator();
+        String state = stateCalculator.convertGet(component, this.rawState);
+        if (state == null) {
+            throw new IllegalStateException("Got state '" + this.rawState + "' for " + this.function + ":" + this.number + ", which resolved to <null> using '" + stateCalculator.getClass().getSimpleName() + "'");
+        }
+        return state;
+    }
+
+    /**
+     * Copies the frame and parses it into a complete event message.
+     */
+    public EventMessage toEventMessage(CentralUnit config) {
+        return this.messageHandler.parseEvent(config, Arrays.copyOf(this.frame, this.length));
+    }
+
+    public interface Listener {
+        /**
+         * @param event Only valid during this call.
+         */
+        void onEvent(EventFrame event);
+    }
+}
@@ -0,0 +1,174 @@
+package io.github.ridiekel.jeletask.client.builder.message;
+
+import io.github.ridiekel.jeletask.client.builder.ByteUtilities;
+import io.github.ridiekel.jeletask.client.builder.composer.MessageHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Decodes the received bytes one at a time into frames (STX, Length, ..., Checksum) and acknowledges.
+ * <p>
+ * The bytes of the frame that is being received are kept in a fixed size ring buffer, so a frame that is split over
+ * several reads is simply continued on the next call to {@link #decode(ByteBuffer, FrameListener)}.
+ * A frame is only copied out of the ring buffer once it is complete and its checksum is correct.
+ * It is copied into a buffer that is reused for every frame, so the listener has to copy what it wants to keep.
+ * When a detected frame turns out to be wrong, the bytes after its STX are queued to be decoded again, nothing is allocated.
+ * <p>
+ * A decoder keeps the state of one connection and is not thread safe.
+ */
+public class FrameDecoder {
+    /**
+     * Logger responsible for logging and debugging statements.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(FrameDecoder.class);
+
+    /**
+     * The length is a single byte, so a frame including its checksum never exceeds 257 bytes.
+     */
+    private static final int RING_SIZE = 512;
+    private static final int RING_MASK = RING_SIZE - 1;
+    private static final int MINIMUM_LENGTH = 3;
+
+    private static final int WAITING_FOR_STX = 0;
+    private static final int READING_LENGTH = 1;
+    private static final int READING_FRAME = 2;
+
+    private final byte[] ring = new byte[RING_SIZE];
+    private final byte[] frame = new byte[RING_SIZE];
+    private final byte[] replay = new byte[RING_SIZE];
+    private final byte stx;
+    private final byte acknowledge;
+    private final EventFrame eventFrame;
+
+    private int state = WAITING_FOR_STX;
+    private int start;
+    private int size;
+    private int expectedSize;
+    private byte checksum;
+    private int replayPosition;
+    private int replayLimit;
+
+    public FrameDecoder(MessageHandler messageHandler) {
+        this.stx = (byte) messageHandler.getStxValue();
+        this.acknowledge = (byte) messageHandler.getAcknowledgeValue();
+        this.eventFrame = new EventFrame(messageHandler);
+    }
+
+    /**
+     * @return The flyweight the events of this connection are decoded into.
+     */
+    public EventFrame getEventFrame() {
+        return this.eventFrame;
+    }
+
+    /**
+     * Consumes all remaining bytes of the buffer.
+     */
+    public void decode(ByteBuffer data, FrameListener listener) {
+        while (data.hasRemaining()) {
+            this.decode(data.get(), listener);
+            while (this.replayPosition < this.replayLimit) {
+                this.decode(this.replay[this.replayPosition++], listener);
+            }
+        }
+    }
+
+    public void reset() {
+        this.state = WAITING_FOR_STX;
+        this.size = 0;
+        this.replayPosition = 0;
+        this.replayLimit = 0;
+    }
+
+    private void decode(byte b, FrameListener listener) {
+        switch (this.state) {
+            case WAITING_FOR_STX:
+                if (b == this.stx) {
+                    this.start = (this.start + this.size) & RING_MASK;
+                    this.size = 0;
+                    this.checksum = 0;
+                    this.append(b);
+                    this.state = READING_LENGTH;
+                } else if (b == this.acknowledge) {
+                    LOG.trace("Received acknowledge");
+                    listener.onAcknowledge();
+                } else {
+                    LOG.warn("Receive - Found byte, but don't know how to handle it: {}", ByteUtilities.bytesToHex(b));
+                }
+                break;
+            case READING_LENGTH:
+                this.append(b);
+                int length = b & 0xff;
+                if (length < MINIMUM_LENGTH) {
+                    this.resynchronize("length " + length + " is too short");
+                } else {
+                    this.expectedSize = length + 1; // +1 for checksum
+                    this.state = READING_FRAME;
+                }
+                break;
+            default:
+                if (this.size + 1 < this.expectedSize) {
+                    this.append(b);
+                } else if (b == this.checksum) {
+                    this.append(b);
+                    this.state = WAITING_FOR_STX;
+                    this.copyFrame(this.frame);
+                    if (LOG.isTraceEnabled()) {
+                        LOG.trace("Receive - Found message bytes: {}", ByteUtilities.bytesToHex(Arrays.copyOf(this.frame, this.size)));
+                    }
+                    listener.onFrame(this.frame, this.size);
+                } else {
+                    this.append(b);
+                    this.resynchronize("checksum '" + ByteUtilities.bytesToHex(b) + "' is not correct, expected '" + ByteUtilities.bytesToHex(this.checksum) + "'");
+                }
+                break;
+        }
+    }
+
+    private void append(byte b) {
+        this.ring[(this.start + this.size) & RING_MASK] = b;
+        this.size++;
+        this.checksum += b;
+    }
+
+    private byte[] copyFrame(byte[] frame) {
+        int firstPart = Math.min(this.size, RING_SIZE - this.start);
+        System.arraycopy(this.ring, this.start, frame, 0, firstPart);
+        System.arraycopy(this.ring, 0, frame, firstPart, this.size - firstPart);
+        return frame;
+    }
+
+    /**
+     * The bytes after a wrongly detected STX may contain the start of a real frame, so they are decoded again.
+     * They go before the bytes that were still waiting to be decoded again.
+     */
+    private void resynchronize(String reason) {
+        int skipped = this.size;
+        this.copyFrame(this.frame);
+        if (LOG.isWarnEnabled()) {
+            LOG.warn("Receive - Dropping STX, {}: {}", reason, ByteUtilities.bytesToHex(Arrays.copyOf(this.frame, skipped)));
+        }
+        int remaining = this.replayLimit - this.replayPosition;
+        System.arraycopy(this.replay, this.replayPosition, this.replay, skipped - 1, remaining);
+        System.arraycopy(this.frame, 1, this.replay, 0, skipped - 1);
+        this.replayPosition = 0;
+        this.replayLimit = skipped - 1 + remaining;
+
+        this.start = (this.start + this.size) & RING_MASK;
+        this.size = 0;
+        this.state = WAITING_FOR_STX;
+    }
+
+    public interface FrameListener {
+        /**
+         * @param frame  The complete frame, including STX, length and a correct checksum, in its first {@code length} bytes.
+         *               The array is reused for the next frame.
+         */
+        void onFrame(byte[] frame, int length);
+
+        void onAcknowledge();
+    }
+}
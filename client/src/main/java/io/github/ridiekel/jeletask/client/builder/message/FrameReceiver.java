@@ -0,0 +1,94 @@
+package io.github.ridiekel.jeletask.client.builder.message;
+
+import io.github.ridiekel.jeletask.TeletaskReceiver;
+import io.github.ridiekel.jeletask.client.builder.ByteUtilities;
+import io.github.ridiekel.jeletask.client.builder.message.messages.MessageSupport;
+import io.github.ridiekel.jeletask.client.transport.Transport;
+import io.github.ridiekel.jeletask.model.spec.CentralUnit;
+import org.slf4j.Logger;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Receives the messages of one connection.
+ * <p>
+ * The receiver is the listener of the frame decoder for every read and keeps one list for the messages it parses,
+ * so a read that only contains acknowledges and events does not allocate anything.
+ * Like the frame decoder it is not thread safe, the connection is read by a single thread.
+ */
+public class FrameReceiver implements FrameDecoder.FrameListener {
+    private final Logger logger;
+    private final TeletaskReceiver teletaskReceiver;
+    private final Runnable onAcknowledge;
+    private final EventFrame.Listener onEvent;
+    private final List<MessageSupport> responses = new ArrayList<>();
+
+    /**
+     * @param onAcknowledge Called for every acknowledge that is received.
+     * @param onEvent       Called for every event, or null to parse events like all other messages.
+     */
+    public FrameReceiver(Logger logger, TeletaskReceiver teletaskReceiver, Runnable onAcknowledge, EventFrame.Listener onEvent) {
+        this.logger = logger;
+        this.teletaskReceiver = teletaskReceiver;
+        this.onAcknowledge = onAcknowledge;
+        this.onEvent = onEvent;
+    }
+
+    /**
+     * Receives all messages that are available, waiting at most the given time for the first bytes to arrive.
+     * An incomplete message is kept by the frame decoder of the receiver and will be completed by a next call.
+     *
+     * @return The parsed messages, the list is reused by the next call.
+     */
+    public List<MessageSupport> receive(long waitMillis) throws Exception {
+        this.responses.clear();
+
+        Transport transport = this.teletaskReceiver.getTransport();
+        if (transport == null) {
+            return this.responses;
+        }
+
+        ByteBuffer data = transport.read(waitMillis);
+        if (data.hasRemaining()) {
+            if (this.logger.isTraceEnabled()) {
+                this.logger.trace("Receive - Raw bytes: {}", ByteUtilities.bytesToHex(toArray(data)));
+            }
+            this.teletaskReceiver.getFrameDecoder().decode(data, this);
+        }
+
+        return this.responses;
+    }
+
+    @Override
+    public void onFrame(byte[] frame, int length) {
+        try {
+            FrameDecoder frameDecoder = this.teletaskReceiver.getFrameDecoder();
+            if (this.onEvent != null && this.teletaskReceiver.getMessageHandler().decodeEvent(frame, length, frameDecoder.getEventFrame())) {
+                this.onEvent.onEvent(frameDecoder.getEventFrame());
+                return;
+            }
+            MessageSupport parse = this.teletaskReceiver.getMessageHandler().parse(this.teletaskReceiver.getConfig(), Arrays.copyOf(frame, length));
+            if (parse != null) {
+                this.responses.add(parse);
+            }
+        } catch (CentralUnit.ComponentNotFoundInConfigException e) {
+            this.logger.debug("Exception ({}) caught in receive: {}", e.getClass().getName(), e.getMessage());
+        } catch (Exception e) {
+            this.logger.error("Exception ({}) caught in receive: {}", e.getClass().getName(), e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void onAcknowledge() {
+        this.onAcknowledge.run();
+    }
+
+    private static byte[] toArray(ByteBuffer data) {
+        byte[] bytes = new byte[data.remaining()];
+        data.duplicate().get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.ridiekel.jeletask.client.builder.message;
+
+import io.github.ridiekel.jeletask.model.spec.Function;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Composed set frames, by function, number and state, filled the first time a frame is needed.
+ * <p>
+ * Relays, moods, flags, motors and conditions only have a few states, the frames of the first
+ * {@link #MAX_DISCRETE_FRAMES_PER_COMPONENT} states that are set are kept, other states are composed every time.
+ * Dimmers and sensors can be set to a lot of different values, their frames are kept in a bounded cache that evicts the least recently used one.
+ * The frames only depend on the configuration of the component, they are dropped when the configuration version of the central unit changes.
+ * A cached frame is shared, it must never be modified.
+ */
+public class SetFrameCache {
+    private static final Set<Function> CONTINUOUS = EnumSet.of(Function.DIMMER, Function.SENSOR);
+    private static final int MAX_DISCRETE_FRAMES_PER_COMPONENT = 8;
+
+    private final Map<Function, Map<Integer, Map<String, byte[]>>> discrete = new EnumMap<>(Function.class);
+    private final Map<ContinuousKey, byte[]> continuous;
+    private final LongSupplier configurationVersion;
+    private volatile long version;
+
+    /**
+     * @param maxContinuousFrames  The maximum amount of dimmer and sensor frames that are kept.
+     * @param configurationVersion The version of the configuration the frames are composed from.
+     */
+    public SetFrameCache(int maxContinuousFrames, LongSupplier configurationVersion) {
+        this.configurationVersion = configurationVersion;
+        this.version = configurationVersion.getAsLong();
+        for (Function function : Function.values()) {
+            if (!CONTINUOUS.contains(function)) {
+                this.discrete.put(function, new ConcurrentHashMap<>());
+            }
+        }
+        this.continuous = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ContinuousKey, byte[]> eldest) {
+                return this.size() > maxContinuousFrames;
+            }
+        };
+    }
+
+    /**
+     * @param compose Composes the frame when it is not cached yet.
+     * @return The cached frame, do not modify it.
+     */
+    public byte[] get(Function function, int number, String state, Supplier<byte[]> compose) {
+        long version = this.configurationVersion.getAsLong();
+        if (version != this.version) {
+            this.clear();
+            this.version = version;
+        }
+        if (CONTINUOUS.contains(function)) {
+            ContinuousKey key = new ContinuousKey(function, number, state);
+            synchronized (this.continuous) {
+                byte[] frame = this.continuous.get(key);
+                if (frame != null) {
+                    return frame;
+                }
+            }
+            byte[] frame = compose.get();
+            synchronized (this.continuous) {
+                this.continuous.put(key, frame);
+            }
+            return frame;
+        }
+        Map<String, byte[]> frames = this.discrete.get(function).computeIfAbsent(number, n -> new ConcurrentHashMap<>());
+        byte[] frame = frames.get(state);
+        if (frame == null) {
+            frame = compose.get();
+            if (frames.size() < MAX_DISCRETE_FRAMES_PER_COMPONENT) {
+                byte[] cached = frames.putIfAbsent(state, frame);
+                if (cached != null) {
+                    frame = cached;
+                }
+            }
+        }
+        return frame;
+    }
+
+    /**
+     * Forgets all frames, for instance after the configuration changed.
+     */
+    public void clear() {
+        this.discrete.values().forEach(Map::clear);
+        synchronized (this.continuous) {
+            this.continuous.clear();
+        }
+    }
+
+    public int size() {
+        int size = this.discrete.values().stream().flatMap(n -> n.values().stream()).mapToInt(Map::size).sum();
+        synchronized (this.continuous) {
+            return size + this.continuous.size();
+        }
+    }
+
+    private static final class ContinuousKey {
+        private final Function function;
+        private final int number;
+        private final String state;
+
+        private ContinuousKey(Function function, int number, String state) {
+            this.function = function;
+            this.number = number;
+            this.state = state;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ContinuousKey)) {
+                return false;
+            }
+            ContinuousKey that = (ContinuousKey) o;
+            return this.function == that.function && this.number == that.number && this.state.equals(that.state);
+        }
+
+        @Override
+        public int hashCode() {
+            return (this.function.hashCode() * 31 + this.number) * 31 + this.state.hashCode();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.ridiekel.jeletask.client.builder.message.executor;
+
+import io.github.ridiekel.jeletask.client.ComponentState;
+import io.github.ridiekel.jeletask.client.metrics.ClientMetrics;
+import io.github.ridiekel.jeletask.model.spec.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Collects the gets of a function that arrive within a short window and sends them as one group get.
+ * <p>
+ * The first get of a function starts the window, the gets that arrive before it ends are added to the same batch.
+ * A number that is asked more than once in a batch is only sent once, all of its callers are completed by the same event.
+ */
+public class GetCoalescer {
+    /**
+     * Logger responsible for logging and debugging statements.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(GetCoalescer.class);
+
+    private final long windowMicros;
+    private final int maxNumbersPerFrame;
+    private final Supplier<ScheduledExecutorService> scheduler;
+    private final GroupGetSender sender;
+    private final ClientMetrics metrics;
+    private final Batch[] batches = new Batch[Function.values().length];
+
+    /**
+     * @param maxNumbersPerFrame The amount of numbers that fit in one group get frame.
+     */
+    public GetCoalescer(long windowMicros, int maxNumbersPerFrame, Supplier<ScheduledExecutorService> scheduler, GroupGetSender sender, ClientMetrics metrics) {
+        this.windowMicros = windowMicros;
+        this.maxNumbersPerFrame = maxNumbersPerFrame;
+        this.scheduler = scheduler;
+        this.sender = sender;
+        this.metrics = metrics;
+    }
+
+    /**
+     * @param waiter Completed by the event of the component, or exceptionally when the number is negative or the group get fails.
+     */
+    public void add(Function function, int number, CompletableFuture<ComponentState> waiter) {
+        if (number < 0) {
+            // Checked before the batch is installed, a batch that is never flushed would keep all later gets of the function waiting.
+            waiter.completeExceptionally(new IllegalArgumentException(String.format("%s(%s) is not a valid component number", function, number)));
+            return;
+        }
+        Batch batch;
+        boolean first;
+        synchronized (this.batches) {
+            batch = this.batches[function.ordinal()];
+            first = batch == null;
+            if (first) {
+                batch = new Batch();
+                this.batches[function.ordinal()] = batch;
+            }
+            batch.numbers.set(number);
+            batch.waiters.add(waiter);
+        }
+        if (first) {
+            try {
+                this.scheduler.get().schedule(() -> this.flush(function), this.windowMicros, TimeUnit.MICROSECONDS);
+            } catch (RuntimeException e) {
+                LOG.debug("Exception ({}) caught in add: {}", e.getClass().getName(), e.getMessage());
+                this.fail(function, batch, e);
+            }
+        }
+    }
+
+    /**
+     * The batch is never flushed, its waiters fail and the next get of the function starts a new batch.
+     */
+    private void fail(Function function, Batch batch, RuntimeException cause) {
+        synchronized (this.batches) {
+            if (this.batches[function.ordinal()] != batch) {
+                return;
+            }
+            this.batches[function.ordinal()] = null;
+        }
+        batch.waiters.forEach(w -> w.completeExceptionally(cause));
+    }
+
+    private void flush(Function function) {
+        Batch batch;
+        synchronized (this.batches) {
+            batch = this.batches[function.ordinal()];
+            this.batches[function.ordinal()] = null;
+        }
+        if (batch == null) {
+            return;
+        }
+        int[] numbers = batch.numbers.stream().toArray();
+        // Recorded before the group get is sent, a caller that is completed by it sees the metrics.
+        int frames = (numbers.length + this.maxNumbersPerFrame - 1) / this.maxNumbersPerFrame;
+        this.metrics.getsCoalesced(batch.waiters.size(), frames);
+        LOG.trace("Coalesced {} gets of {} into {} frames", batch.waiters.size(), function, frames);
+        try {
+            this.sender.send(function, numbers, batch.waiters);
+        } catch (RuntimeException e) {
+            LOG.debug("Exception ({}) caught in flush: {}", e.getClass().getName(), e.getMessage());
+            batch.waiters.forEach(w -> w.completeExceptionally(e));
+        }
+    }
+
+    public interface GroupGetSender {
+        /**
+         * @param waiters Completed by the events of the components, or exceptionally when the group get fails.
+         */
+        void send(Function function, int[] numbers, List<CompletableFuture<ComponentState>> waiters);
+    }
+
+    private static final class Batch {
+        private final BitSet numbers = new BitSet();
+        private final List<CompletableFuture<ComponentState>> waiters = new ArrayList<>();
+    }
+}
@@ -0,0 +1,175 @@
+package io.github.ridiekel.jeletask.client.builder.message.executor;
+
+import io.github.ridiekel.jeletask.client.builder.message.messages.AcknowledgeException;
+import io.github.ridiekel.jeletask.client.builder.message.messages.MessageSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps track of the messages that were sent, but not yet acknowledged by the central unit.
+ * <p>
+ * The central unit acknowledges messages in the order it received them and the acknowledge itself does not say which
+ * message it belongs to. Every acknowledge is therefore matched to the oldest outstanding message.
+ * At most 'pipeline depth' messages are outstanding at the same time, the others wait until a slot frees up.
+ * <p>
+ * When a message is not acknowledged in time, its acknowledge could still arrive and would then be matched to the next message.
+ * The queue can not tell, so it fails all outstanding and waiting messages, ignores the acknowledges that follow and fails
+ * new messages until {@link #failAll(Exception)} is called for the new connection. The connection itself has to be reset by the
+ * listener that is called on the timeout.
+ */
+public class InFlightQueue {
+    /**
+     * Logger responsible for logging and debugging statements.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(InFlightQueue.class);
+
+    private final int pipelineDepth;
+    private final long acknowledgeTimeoutMillis;
+    private final Executor timeoutExecutor;
+    private final Runnable onAcknowledgeTimeout;
+
+    private final Deque<Request> inFlight = new ArrayDeque<>();
+    private final Deque<Request> waiting = new ArrayDeque<>();
+    private boolean poisoned;
+
+    /**
+     * @param onAcknowledgeTimeout Called once when a message was not acknowledged in time, it should reconnect.
+     */
+    public InFlightQueue(int pipelineDepth, long acknowledgeTimeoutMillis, Runnable onAcknowledgeTimeout) {
+        if (pipelineDepth < 1) {
+            throw new IllegalArgumentException("The pipeline depth should be at least 1, but was " + pipelineDepth);
+        }
+        this.pipelineDepth = pipelineDepth;
+        this.acknowledgeTimeoutMillis = acknowledgeTimeoutMillis;
+        this.timeoutExecutor = CompletableFuture.delayedExecutor(acknowledgeTimeoutMillis, TimeUnit.MILLISECONDS);
+        this.onAcknowledgeTimeout = onAcknowledgeTimeout;
+    }
+
+    /**
+     * @param message The message, used for logging and to mark it as acknowledged.
+     * @param send    Writes the message to the central unit, called once a slot in the pipeline is available.
+     * @return A future that completes when the message is acknowledged, or fails with an {@link AcknowledgeException} when it is not acknowledged in time.
+     */
+    public CompletableFuture<Void> submit(MessageSupport message, Runnable send) {
+        Request request = new Request(message, send);
+        synchronized (this) {
+            if (this.poisoned) {
+                request.acknowledged.completeExceptionally(new AcknowledgeException(String.format("%s - An earlier message was not acknowledged, waiting for the connection to be reset", message.getId()), null));
+            } else if (this.inFlight.size() < this.pipelineDepth) {
+                this.send(request);
+            } else {
+                LOG.trace("Pipeline full, queueing message: {}", message);
+                this.waiting.addLast(request);
+            }
+        }
+        return request.acknowledged;
+    }
+
+    /**
+     * Acknowledges the oldest outstanding message.
+     */
+    public void acknowledge() {
+        Request request;
+        boolean ignored;
+        synchronized (this) {
+            ignored = this.poisoned;
+            request = ignored ? null : this.inFlight.pollFirst();
+        }
+        if (ignored) {
+            LOG.debug("Ignoring an acknowledge, an earlier message was not acknowledged in time");
+        } else if (request == null) {
+            LOG.debug("Received an acknowledge, but there is no message waiting for one");
+        } else {
+            LOG.trace("Message acknowledged: {}", request.message);
+            request.message.acknowledge();
+            request.acknowledged.complete(null);
+            this.sendWaiting();
+        }
+    }
+
+    /**
+     * Fails all outstanding and waiting messages, for instance because the connection was closed.
+     * The acknowledges that are received after this call are matched to the messages that are submitted after it.
+     */
+    public void failAll(Exception cause) {
+        List<Request> failed;
+        synchronized (this) {
+            failed = this.clear();
+            this.poisoned = false;
+        }
+        failed.forEach(r -> r.acknowledged.completeExceptionally(cause));
+    }
+
+    public synchronized boolean isPoisoned() {
+        return this.poisoned;
+    }
+
+    public synchronized int getInFlightCount() {
+        return this.inFlight.size();
+    }
+
+    public synchronized int getWaitingCount() {
+        return this.waiting.size();
+    }
+
+    /**
+     * Called while holding the lock, so the messages are handed to the writer in the same order as they are added to the in flight queue.
+     */
+    private void send(Request request) {
+        try {
+            request.send.run();
+            this.inFlight.addLast(request);
+            this.timeoutExecutor.execute(() -> this.timeout(request));
+        } catch (Exception e) {
+            request.acknowledged.completeExceptionally(e);
+        }
+    }
+
+    private void timeout(Request request) {
+        List<Request> failed;
+        synchronized (this) {
+            if (request.acknowledged.isDone() || !this.inFlight.contains(request)) {
+                return;
+            }
+            failed = this.clear();
+            this.poisoned = true;
+        }
+        AcknowledgeException cause = new AcknowledgeException(String.format("%s - Did not receive acknowledge from the Teletask Central Unit within %s ms", request.message.getId(), this.acknowledgeTimeoutMillis), null);
+        LOG.warn("{}, failing {} outstanding and waiting messages", cause.getMessage(), failed.size());
+        failed.forEach(r -> r.acknowledged.completeExceptionally(cause));
+        this.onAcknowledgeTimeout.run();
+    }
+
+    private List<Request> clear() {
+        List<Request> cleared = new ArrayList<>(this.inFlight);
+        cleared.addAll(this.waiting);
+        this.inFlight.clear();
+        this.waiting.clear();
+        return cleared;
+    }
+
+    private synchronized void sendWaiting() {
+        while (this.inFlight.size() < this.pipelineDepth && !this.waiting.isEmpty()) {
+            this.send(this.waiting.pollFirst());
+        }
+    }
+
+    private static class Request {
+        private final MessageSupport message;
+        private final Runnable send;
+        private final CompletableFuture<Void> acknowledged = new CompletableFuture<>();
+
+        private Request(MessageSupport message, Runnable send) {
+            this.message = message;
+            this.send = send;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.ridiekel.jeletask.client.builder.message.executor;
+
+import io.github.ridiekel.jeletask.client.ComponentState;
+import io.github.ridiekel.jeletask.model.spec.ComponentSpec;
+import io.github.ridiekel.jeletask.model.spec.Function;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
+
+/**
+ * Futures waiting for an event of a component, registered per function and number.
+ * <p>
+ * The event reader completes the waiters as soon as the event arrives, nobody has to poll the state of the component.
+ * Completing a waiter (normally, exceptionally or by a timeout of the caller) removes it from the registry.
+ */
+public class StateChangeWaiters {
+    private final Map<Function, Map<Integer, Queue<Waiter>>> waiters = new EnumMap<>(Function.class);
+
+    public StateChangeWaiters() {
+        for (Function function : Function.values()) {
+            this.waiters.put(function, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * @param condition Tested against the state in the event, the waiter is only completed when it matches.
+     * @return A future that completes with the state of the component after the first matching event.
+     */
+    public CompletableFuture<ComponentState> register(Function function, int number, Predicate<String> condition) {
+        Queue<Waiter> queue = this.waiters.get(function).computeIfAbsent(number, n -> new ConcurrentLinkedQueue<>());
+        Waiter waiter = new Waiter(condition);
+        queue.add(waiter);
+        waiter.future.whenComplete((s, e) -> queue.remove(waiter));
+        return waiter.future;
+    }
+
+    /**
+     * Called for every event of a component in the configuration, after its state was updated.
+     *
+     * @param state The state as it was received in the event.
+     */
+    public void stateChanged(ComponentSpec component, String state) {
+        Queue<Waiter> queue = this.waiters.get(component.getFunction()).get(component.getNumber());
+        if (queue != null && !queue.isEmpty()) {
+            ComponentState componentState = ComponentState.of(component);
+            for (Waiter waiter : queue) {
+                if (waiter.condition.test(state)) {
+                    waiter.future.complete(componentState);
+                }
+            }
+        }
+    }
+
+    public void failAll(Exception cause) {
+        for (Map<Integer, Queue<Waiter>> numbers : this.waiters.values()) {
+            for (Queue<Waiter> queue : numbers.values()) {
+                for (Waiter waiter : queue) {
+                    waiter.future.completeExceptionally(cause);
+                }
+            }
+        }
+    }
+
+    public int getWaitingCount() {
+        return this.waiters.values().stream().flatMap(n -> n.values().stream()).mapToInt(Queue::size).sum();
+    }
+
+    private static class Waiter {
+        private final Predicate<String> condition;
+        private final CompletableFuture<ComponentState> future = new CompletableFuture<>();
+
+        private Waiter(Predicate<String> condition) {
+            this.condition = condition;
+        }
+    }
+}
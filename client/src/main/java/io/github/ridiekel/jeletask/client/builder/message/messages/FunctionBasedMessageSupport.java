@@ -16,7 +16,7 @@ public abstract class FunctionBasedMessageSupport extends MessageSupport {
     }
 
     @Override
-    protected String getId() {
+    public String getId() {
         return this.function.name();
     }
 }
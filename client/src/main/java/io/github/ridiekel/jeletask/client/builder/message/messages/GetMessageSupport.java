@@ -10,6 +10,7 @@ import io.github.ridiekel.jeletask.utilities.Bytes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -38,6 +39,15 @@ public abstract class GetMessageSupport extends FunctionBasedMessageSupport {
         return Bytes.concat(new byte[]{(byte) this.getMessageHandler().getFunctionConfig(this.getFunction()).getNumber()}, this.getMessageHandler().composeOutput(this.getNumbers()));
     }
 
+    @Override
+    protected void writePayload(ByteBuffer dst) {
+        MessageHandler messageHandler = this.getMessageHandler();
+        dst.put((byte) messageHandler.getFunctionConfig(this.getFunction()).getNumber());
+        for (int number : this.getNumbers()) {
+            messageHandler.composeOutput(dst, number);
+        }
+    }
+
     @Override
     public Command getCommand() {
         return Command.GET;
@@ -69,7 +79,7 @@ public abstract class GetMessageSupport extends FunctionBasedMessageSupport {
     }
 
     @Override
-    protected String getId() {
+    public String getId() {
         return "GET " + super.getId() + "(" + Arrays.stream(this.numbers).mapToObj(String::valueOf).collect(Collectors.joining(",")) + ")";
     }
 }
@@ -5,20 +5,21 @@ import io.github.ridiekel.jeletask.client.builder.ByteUtilities;
 import io.github.ridiekel.jeletask.client.builder.composer.MessageHandler;
 import io.github.ridiekel.jeletask.client.builder.composer.MessageHandlerFactory;
 import io.github.ridiekel.jeletask.client.builder.composer.config.configurables.FunctionConfigurable;
-import io.github.ridiekel.jeletask.client.builder.message.MessageUtilities;
 import io.github.ridiekel.jeletask.client.builder.message.messages.impl.EventMessage;
 import io.github.ridiekel.jeletask.model.spec.CentralUnit;
 import io.github.ridiekel.jeletask.model.spec.Command;
 import io.github.ridiekel.jeletask.model.spec.ComponentSpec;
 import io.github.ridiekel.jeletask.model.spec.Function;
-import org.awaitility.Awaitility;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -33,54 +34,103 @@ public abstract class MessageSupport {
     private static final Pattern INSERT_PLACEHOLDERS = Pattern.compile("\\|   ");
     public static final int ACK_WAIT_TIME = 2000;
 
+    /**
+     * The length of a frame is a single byte, longer messages are rejected while composing. Leave some room for them to be written until then.
+     */
+    private static final int MAX_FRAME_LENGTH = 1024;
+
     private final CentralUnit clientConfig;
 
-    private boolean acknowledged = false;
+    private final MessageHandler.PayloadWriter payloadWriter = this::writePayload;
+
+    private volatile boolean acknowledged = false;
 
     protected MessageSupport(CentralUnit clientConfig) {
         this.clientConfig = clientConfig;
     }
 
+    /**
+     * Executes the message and waits until it is done.
+     *
+     * @throws AcknowledgeException When the central unit did not acknowledge the message in time.
+     */
     public void execute(TeletaskClientImpl client) throws AcknowledgeException {
+        this.await(this.send(client));
+    }
+
+    /**
+     * Sends all messages right after each other, through the pipeline of the client, and waits until they are all done.
+     *
+     * @throws AcknowledgeException When the central unit did not acknowledge one of the messages in time.
+     */
+    public static void executeAll(TeletaskClientImpl client, List<? extends MessageSupport> messages) throws AcknowledgeException {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(messages.size());
+        for (MessageSupport message : messages) {
+            futures.add(message.send(client));
+        }
+        for (int i = 0; i < messages.size(); i++) {
+            MessageSupport message = messages.get(i);
+            message.await(futures.get(i));
+        }
+    }
+
+    private void await(CompletableFuture<Void> future) throws AcknowledgeException {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AcknowledgeException) {
+                throw (AcknowledgeException) e.getCause();
+            }
+            throw new AcknowledgeException(String.format("%s - Failed to send message to the Teletask Central Unit", this.getId()), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AcknowledgeException(String.format("%s - Interrupted while waiting for acknowledge", this.getId()), e);
+        }
+    }
+
+    /**
+     * Sends the message without waiting for the central unit.
+     * The acknowledge is read by the event reader of the client and matched to this message by the in flight queue.
+     *
+     * @return A future that completes when the message is done, which by default is when it is acknowledged.
+     */
+    public CompletableFuture<Void> send(TeletaskClientImpl client) {
         MessageHandler messageHandler = this.getMessageHandler();
         if (this.isValid()) {
             if (messageHandler.knows(this.getCommand())) {
-                byte[] message = messageHandler.compose(this.getCommand(), this.getPayload());
-
                 LOG.trace("Sending message: {}", this);
 
-                client.send(message, this::getLogInfo);
-
-                LOG.trace("Message sent: {}", this);
-
-                this.waitForAcknowledge(client);
-
-                LOG.trace("Message acknowledged: {}", this);
+                return client.submit(this);
             } else {
                 LOG.warn("Message handler '{}' does not know of command '{}'", this.getMessageHandler().getClass().getSimpleName(), this.getCommand());
             }
         } else {
             LOG.warn("Invalid request: {}", this);
         }
+        return CompletableFuture.completedFuture(null);
     }
 
-    private void waitForAcknowledge(TeletaskClientImpl client) throws AcknowledgeException {
-        try {
-            Awaitility.await(String.format("Acknowlegde - %s", this.getId()))
-                    .pollInterval(10, TimeUnit.MILLISECONDS)
-                    .atMost(ACK_WAIT_TIME, TimeUnit.MILLISECONDS)
-                    .pollInSameThread()
-                    .until(() -> {
-                        try {
-                            client.handleReceiveEvents(MessageUtilities.receive(LOG, client, this));
-                        } catch (Exception e) {
-                            LOG.error("Exception ({}) caught in execute: {}", e.getClass().getName(), e.getMessage(), e);
-                        }
-                        return this.isAcknowledged();
-                    });
-        } catch (Exception e) {
-            throw new AcknowledgeException(String.format("%s - Did not receive acknowledge from the Teletask Central Unit within %s ms", this.getId(), ACK_WAIT_TIME), e);
-        }
+    /**
+     * Writes the complete frame of this message at the position of the buffer the client writes to the central unit.
+     */
+    public void compose(TeletaskClientImpl client, ByteBuffer dst) {
+        this.compose(dst);
+    }
+
+    /**
+     * @return The complete frame of this message in a new array, for logging and caching.
+     */
+    public byte[] toByteArray() {
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_FRAME_LENGTH);
+        this.compose(buffer);
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    /**
+     * Writes the complete frame of this message at the position of the buffer.
+     */
+    public void compose(ByteBuffer dst) {
+        this.getMessageHandler().compose(this.getCommand(), this.payloadWriter, dst);
     }
 
     protected boolean isValid() {
@@ -98,6 +148,14 @@ public abstract class MessageSupport {
      */
     protected abstract byte[] getPayload();
 
+    /**
+     * Writes the same bytes as {@link #getPayload()} at the position of the buffer.
+     * Messages that can write their payload without creating intermediate arrays override this.
+     */
+    protected void writePayload(ByteBuffer dst) {
+        dst.put(this.getPayload());
+    }
+
     protected abstract Command getCommand();
 
     public String getLogInfo(byte[] message) {
@@ -224,5 +282,5 @@ public abstract class MessageSupport {
         this.acknowledged = true;
     }
 
-    protected abstract String getId();
+    public abstract String getId();
 }
@@ -53,7 +53,7 @@ public class EventMessage extends FunctionBasedMessageSupport {
     }
 
     @Override
-    protected String getId() {
+    public String getId() {
         return "EVENT " + super.getId() + "(" + this.number + ")";
     }
 }
@@ -1,15 +1,33 @@
 package io.github.ridiekel.jeletask.client.builder.message.messages.impl;
 
+import io.github.ridiekel.jeletask.client.builder.composer.MessageHandler;
+import io.github.ridiekel.jeletask.client.builder.composer.MessageHandlerFactory;
 import io.github.ridiekel.jeletask.client.builder.message.messages.GetMessageSupport;
 import io.github.ridiekel.jeletask.model.spec.CentralUnit;
 import io.github.ridiekel.jeletask.model.spec.Command;
 import io.github.ridiekel.jeletask.model.spec.Function;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 public class GroupGetMessage extends GetMessageSupport {
     public GroupGetMessage(CentralUnit clientConfig, Function function, int... number) {
         super(function, clientConfig, number);
     }
 
+    /**
+     * @return As many messages as needed to get all numbers, a frame only fits {@link MessageHandler#getMaxOutputsPerFrame(Command)} outputs.
+     */
+    public static List<GroupGetMessage> chunked(CentralUnit clientConfig, Function function, int... numbers) {
+        int maxOutputs = MessageHandlerFactory.getMessageHandler(clientConfig.getCentralUnitType()).getMaxOutputsPerFrame(Command.GROUPGET);
+        List<GroupGetMessage> messages = new ArrayList<>();
+        for (int from = 0; from < numbers.length; from += maxOutputs) {
+            messages.add(new GroupGetMessage(clientConfig, function, Arrays.copyOfRange(numbers, from, Math.min(numbers.length, from + maxOutputs))));
+        }
+        return messages;
+    }
+
     @Override
     public Command getCommand() {
         return Command.GROUPGET;
@@ -22,7 +40,7 @@ public class GroupGetMessage extends GetMessageSupport {
     }
 
     @Override
-    protected String getId() {
+    public String getId() {
         return "GROUP" + super.getId();
     }
 }
@@ -4,6 +4,8 @@ import io.github.ridiekel.jeletask.client.builder.message.messages.MessageSuppor
 import io.github.ridiekel.jeletask.model.spec.CentralUnit;
 import io.github.ridiekel.jeletask.model.spec.Command;
 
+import java.nio.ByteBuffer;
+
 public class KeepAliveMessage extends MessageSupport {
     public KeepAliveMessage(CentralUnit clientConfig) {
         super(clientConfig);
@@ -14,6 +16,10 @@ public class KeepAliveMessage extends MessageSupport {
         return new byte[0];
     }
 
+    @Override
+    protected void writePayload(ByteBuffer dst) {
+    }
+
     @Override
     public Command getCommand() {
         return Command.KEEP_ALIVE;
@@ -25,7 +31,7 @@ public class KeepAliveMessage extends MessageSupport {
     }
 
     @Override
-    protected String getId() {
+    public String getId() {
         return "KEEPALIVE";
     }
 }
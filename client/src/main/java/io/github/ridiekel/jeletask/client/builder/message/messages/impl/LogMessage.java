@@ -6,6 +6,7 @@ import io.github.ridiekel.jeletask.model.spec.CentralUnit;
 import io.github.ridiekel.jeletask.model.spec.Command;
 import io.github.ridiekel.jeletask.model.spec.Function;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.stream.Collectors;
 
@@ -19,6 +20,11 @@ public class LogMessage extends FunctionStateBasedMessageSupport {
         return new byte[]{(byte) this.getMessageHandler().getFunctionConfig(this.getFunction()).getNumber(), (byte) this.getMessageHandler().getLogStateByte(this.getState())};
     }
 
+    @Override
+    protected void writePayload(ByteBuffer dst) {
+        dst.put((byte) this.getMessageHandler().getFunctionConfig(this.getFunction()).getNumber()).put((byte) this.getMessageHandler().getLogStateByte(this.getState()));
+    }
+
     @Override
     protected Command getCommand() {
         return Command.LOG;
@@ -41,7 +47,7 @@ public class LogMessage extends FunctionStateBasedMessageSupport {
     }
 
     @Override
-    protected String getId() {
+    public String getId() {
         return "LOG " + super.getId();
     }
 }
@@ -4,25 +4,17 @@ import io.github.ridiekel.jeletask.client.TeletaskClientImpl;
 import io.github.ridiekel.jeletask.client.builder.composer.MessageHandler;
 import io.github.ridiekel.jeletask.client.builder.composer.MessageHandlerFactory;
 import io.github.ridiekel.jeletask.client.builder.composer.config.configurables.FunctionConfigurable;
-import io.github.ridiekel.jeletask.client.builder.message.MessageUtilities;
-import io.github.ridiekel.jeletask.client.builder.message.messages.AcknowledgeException;
 import io.github.ridiekel.jeletask.client.builder.message.messages.FunctionStateBasedMessageSupport;
 import io.github.ridiekel.jeletask.model.spec.CentralUnit;
 import io.github.ridiekel.jeletask.model.spec.Command;
 import io.github.ridiekel.jeletask.model.spec.ComponentSpec;
 import io.github.ridiekel.jeletask.model.spec.Function;
 import io.github.ridiekel.jeletask.utilities.Bytes;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 
 public class SetMessage extends FunctionStateBasedMessageSupport {
-    /**
-     * Logger responsible for logging and debugging statements.
-     */
-    private static final Logger LOG = LoggerFactory.getLogger(SetMessage.class);
-
     private final int number;
 
     public SetMessage(CentralUnit clientConfig, Function function, int number, String state) {
@@ -44,29 +36,21 @@ public class SetMessage extends FunctionStateBasedMessageSupport {
         return Bytes.concat(function, output, state);
     }
 
+    /**
+     * The same component is usually set to the same few states over and over again, so the frames are cached by the client.
+     */
     @Override
-    public void execute(TeletaskClientImpl client) throws AcknowledgeException {
-        super.execute(client);
+    public void compose(TeletaskClientImpl client, ByteBuffer dst) {
+        dst.put(client.getSetFrameCache().get(this.getFunction(), this.getNumber(), this.getState(), this::toByteArray));
+    }
 
+    @Override
+    protected void writePayload(ByteBuffer dst) {
+        FunctionConfigurable functionConfig = this.getMessageHandler().getFunctionConfig(this.getFunction());
         ComponentSpec component = this.getClientConfig().getComponent(this.getFunction(), this.getNumber());
-        String initialState = component.getState();
-        long start = System.currentTimeMillis();
-        while (!this.getState().equals(component.getState()) && (System.currentTimeMillis() - start) < 2000) {
-            try {
-                Thread.sleep(10);
-            } catch (InterruptedException e) {
-                LOG.trace("Exception ({}) caught in set: {}", e.getClass().getName(), e.getMessage(), e);
-            }
-            try {
-                client.handleReceiveEvents(MessageUtilities.receive(LOG, client));
-            } catch (Exception e) {
-                LOG.error("Exception ({}) caught in execute: {}", e.getClass().getName(), e.getMessage(), e);
-            }
-        }
-        if (this.getFunction().shouldReceiveAcknowledge(this.getState()) && !this.getState().equals(component.getState())) {
-            String message = "Did not receive a state change for " + component.getFunction() + ":" + component.getNumber() + " ("+component.getDescription()+") within 2 seconds. Assuming failed to set state from '" + initialState + "' to '" + this.getState() + "'";
-            LOG.warn(message);
-        }
+        dst.put((byte) functionConfig.getNumber());
+        this.getMessageHandler().composeOutput(dst, this.getNumber());
+        functionConfig.getStateCalculator().writeSet(component, this.getState(), dst);
     }
 
     @Override
@@ -85,7 +69,7 @@ public class SetMessage extends FunctionStateBasedMessageSupport {
     }
 
     @Override
-    protected String getId() {
+    public String getId() {
         return "SET " + super.getId() + "(" + this.number + ")";
     }
 }
@@ -0,0 +1,147 @@
+package io.github.ridiekel.jeletask.client.builder.message.strategy;
+
+import io.github.ridiekel.jeletask.client.TeletaskClientImpl;
+import io.github.ridiekel.jeletask.client.metrics.GetProgress;
+import io.github.ridiekel.jeletask.model.spec.CentralUnit;
+import io.github.ridiekel.jeletask.model.spec.ComponentSpec;
+import io.github.ridiekel.jeletask.model.spec.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Gets the states of the components of a function one get at a time, for central units that do not answer a group get.
+ * <p>
+ * The pause between two gets follows how fast the central unit answers: it moves towards the response time while
+ * answers arrive and doubles when one does not, within {@link #MIN_DELAY_MILLIS} and {@link #MAX_DELAY_MILLIS}.
+ * A component that does not answer is retried later, with an exponential backoff,
+ * and given up on after {@link io.github.ridiekel.jeletask.client.TeletaskClientOptions#getMaxGetAttempts()} attempts.
+ * The client is told, so it does not wait for that state to be ready.
+ * Components that got a known state in the meantime (e.g. from an event) are not asked.
+ */
+public class GetScheduler implements Runnable {
+    /**
+     * Logger responsible for logging and debugging statements.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(GetScheduler.class);
+
+    private static final long INITIAL_DELAY_MILLIS = 150;
+    private static final long MIN_DELAY_MILLIS = 20;
+    private static final long MAX_DELAY_MILLIS = 2000;
+    private static final long RETRY_BACKOFF_MILLIS = 500;
+    private static final long MAX_RETRY_BACKOFF_MILLIS = 8000;
+
+    private final TeletaskClientImpl client;
+    private final Function function;
+    private final List<ComponentSpec> components = new ArrayList<>();
+    private final GetProgress progress;
+    private final int maxAttempts;
+    private long delayMillis = INITIAL_DELAY_MILLIS;
+
+    public GetScheduler(TeletaskClientImpl client, Function function, int... numbers) {
+        this.client = client;
+        this.function = function;
+        for (int number : numbers) {
+            try {
+                ComponentSpec component = client.getConfig().getComponent(function, number);
+                if (component != null) {
+                    this.components.add(component);
+                }
+            } catch (CentralUnit.ComponentNotFoundInConfigException e) {
+                LOG.debug("Exception ({}) caught in GetScheduler: {}", e.getClass().getName(), e.getMessage());
+            }
+        }
+        this.progress = new GetProgress(function, this.components.size());
+        this.maxAttempts = Math.max(1, client.getOptions().getMaxGetAttempts());
+    }
+
+    public GetProgress getProgress() {
+        return this.progress;
+    }
+
+    /**
+     * Gets the states until every component has one or was given up on.
+     */
+    @Override
+    public void run() {
+        this.client.getMetrics().getsStarted(this.progress);
+
+        int size = this.components.size();
+        int[] attempts = new int[size];
+        long[] notBefore = new long[size];
+        boolean[] done = new boolean[size];
+        int remaining = size;
+
+        try {
+            while (remaining > 0) {
+                long now = System.currentTimeMillis();
+                long earliest = Long.MAX_VALUE;
+                for (int i = 0; i < size; i++) {
+                    if (done[i]) {
+                        continue;
+                    }
+                    ComponentSpec component = this.components.get(i);
+                    if (isKnown(component)) {
+                        done[i] = true;
+                        remaining--;
+                        this.progress.stateKnown();
+                    } else if (notBefore[i] > now) {
+                        earliest = Math.min(earliest, notBefore[i]);
+                    } else if (this.get(component)) {
+                        done[i] = true;
+                        remaining--;
+                        this.progress.stateKnown();
+                        Thread.sleep(this.delayMillis);
+                        now = System.currentTimeMillis();
+                    } else if (++attempts[i] >= this.maxAttempts) {
+                        LOG.warn("Giving up on getting the state of {}:{} after {} attempts", this.function, component.getNumber(), attempts[i]);
+                        done[i] = true;
+                        remaining--;
+                        this.progress.gaveUp(component.getNumber());
+                        this.client.gaveUp(component);
+                    } else {
+                        now = System.currentTimeMillis();
+                        notBefore[i] = now + Math.min(MAX_RETRY_BACKOFF_MILLIS, RETRY_BACKOFF_MILLIS << (attempts[i] - 1));
+                        earliest = Math.min(earliest, notBefore[i]);
+                    }
+                }
+                if (remaining > 0 && earliest != Long.MAX_VALUE) {
+                    Thread.sleep(Math.max(0, earliest - System.currentTimeMillis()));
+                }
+            }
+            LOG.debug("Got the states of {}: {}, the last delay was {}ms", this.function, this.progress, this.delayMillis);
+            this.progress.complete();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.progress.fail(e);
+        }
+    }
+
+    /**
+     * @return true when the central unit sent the state.
+     */
+    private boolean get(ComponentSpec component) throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            this.client.sendGet(component).get();
+            long responseMillis = (System.nanoTime() - start) / 1_000_000;
+            this.delayMillis = Math.max(MIN_DELAY_MILLIS, (this.delayMillis + responseMillis) / 2);
+            return true;
+        } catch (ExecutionException e) {
+            LOG.debug("Exception ({}) caught in GetScheduler: {}", e.getCause().getClass().getName(), e.getCause().getMessage());
+            this.delayMillis = Math.min(MAX_DELAY_MILLIS, this.delayMillis * 2);
+            Thread.sleep(this.delayMillis);
+            return false;
+        }
+    }
+
+    /**
+     * A stale state was restored from before a restart, it still needs to be confirmed.
+     */
+    private static boolean isKnown(ComponentSpec component) {
+        return component.getState() != null && !component.isStale();
+    }
+}
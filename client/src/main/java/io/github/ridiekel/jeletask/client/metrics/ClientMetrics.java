@@ -0,0 +1,146 @@
+package io.github.ridiekel.jeletask.client.metrics;
+
+import io.github.ridiekel.jeletask.model.spec.Function;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * The metrics of the connection to one central unit.
+ */
+public class ClientMetrics {
+    private final LatencyHistogram setLatency = new LatencyHistogram();
+    private final WriteMetrics writes = new WriteMetrics();
+    private final LongAdder acknowledgesReceived = new LongAdder();
+    private final LongAdder eventsReceived = new LongAdder();
+    private final LongAdder reconnects = new LongAdder();
+    private final LongAdder coalescedGets = new LongAdder();
+    private final LongAdder coalescedGetFrames = new LongAdder();
+    private volatile StartupTimings startup;
+    private final Map<Function, GetProgress> getProgress = new ConcurrentHashMap<>();
+
+    private final IntSupplier inFlight;
+    private final IntSupplier queued;
+
+    /**
+     * @param inFlight The amount of messages that were sent, but are not acknowledged yet.
+     * @param queued   The amount of messages waiting for room in the pipeline.
+     */
+    public ClientMetrics(IntSupplier inFlight, IntSupplier queued) {
+        this.inFlight = inFlight;
+        this.queued = queued;
+    }
+
+    /**
+     * @return The time between sending a set and receiving the event confirming the new state.
+     */
+    public LatencyHistogram getSetLatency() {
+        return this.setLatency;
+    }
+
+    /**
+     * @return The amount of messages that were combined into each write to the connection.
+     */
+    public WriteMetrics getWrites() {
+        return this.writes;
+    }
+
+    public void acknowledgeReceived() {
+        this.acknowledgesReceived.increment();
+    }
+
+    public long getAcknowledgesReceived() {
+        return this.acknowledgesReceived.sum();
+    }
+
+    public void eventReceived() {
+        this.eventsReceived.increment();
+    }
+
+    public long getEventsReceived() {
+        return this.eventsReceived.sum();
+    }
+
+    public void reconnected() {
+        this.reconnects.increment();
+    }
+
+    public long getReconnects() {
+        return this.reconnects.sum();
+    }
+
+    /**
+     * @param gets   The amount of gets that were combined.
+     * @param frames The amount of group get frames they were sent in.
+     */
+    public void getsCoalesced(int gets, int frames) {
+        this.coalescedGets.add(gets);
+        this.coalescedGetFrames.add(frames);
+    }
+
+    public long getCoalescedGets() {
+        return this.coalescedGets.sum();
+    }
+
+    /**
+     * @return The amount of frames that were not sent because gets were combined into group gets.
+     */
+    public long getSavedGetRequests() {
+        return this.coalescedGets.sum() - this.coalescedGetFrames.sum();
+    }
+
+    /**
+     * @return A new timing for a (re)start of the client, which replaces the one of the previous start.
+     */
+    public StartupTimings startupBegun() {
+        StartupTimings startup = new StartupTimings();
+        this.startup = startup;
+        return startup;
+    }
+
+    /**
+     * @return The phases of the last (re)start, null when the client was never started.
+     */
+    public StartupTimings getStartup() {
+        return this.startup;
+    }
+
+    /**
+     * Replaces the progress of the previous gets of the same function.
+     */
+    public void getsStarted(GetProgress progress) {
+        this.getProgress.put(progress.getFunction(), progress);
+    }
+
+    /**
+     * @return The progress of the last gets of the states of the function, null when the central unit answers group gets.
+     */
+    public GetProgress getGetProgress(Function function) {
+        return this.getProgress.get(function);
+    }
+
+    public int getInFlight() {
+        return this.inFlight.getAsInt();
+    }
+
+    public int getQueued() {
+        return this.queued.getAsInt();
+    }
+
+    @Override
+    public String toString() {
+        return "ClientMetrics{" + "inFlight=" + this.getInFlight() +
+                ", queued=" + this.getQueued() +
+                ", acknowledgesReceived=" + this.getAcknowledgesReceived() +
+                ", eventsReceived=" + this.getEventsReceived() +
+                ", reconnects=" + this.getReconnects() +
+                ", coalescedGets=" + this.getCoalescedGets() +
+                ", savedGetRequests=" + this.getSavedGetRequests() +
+                ", setLatency=" + this.setLatency +
+                ", writes=" + this.writes +
+                ", startup=" + this.startup +
+                '}';
+    }
+}
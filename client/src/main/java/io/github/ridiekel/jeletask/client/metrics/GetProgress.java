@@ -0,0 +1,82 @@
+package io.github.ridiekel.jeletask.client.metrics;
+
+import io.github.ridiekel.jeletask.model.spec.Function;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * How far the gets of the states of the components of one function are.
+ */
+public class GetProgress {
+    private final Function function;
+    private final int total;
+    private final AtomicInteger known = new AtomicInteger();
+    private final List<Integer> failed = new ArrayList<>();
+    private final CompletableFuture<GetProgress> completion = new CompletableFuture<>();
+
+    public GetProgress(Function function, int total) {
+        this.function = function;
+        this.total = total;
+    }
+
+    public void stateKnown() {
+        this.known.incrementAndGet();
+    }
+
+    /**
+     * The component did not answer after all retries.
+     */
+    public void gaveUp(int number) {
+        synchronized (this.failed) {
+            this.failed.add(number);
+        }
+    }
+
+    public void complete() {
+        this.completion.complete(this);
+    }
+
+    public void fail(Throwable cause) {
+        this.completion.completeExceptionally(cause);
+    }
+
+    public Function getFunction() {
+        return this.function;
+    }
+
+    public int getTotal() {
+        return this.total;
+    }
+
+    public int getKnown() {
+        return this.known.get();
+    }
+
+    /**
+     * @return The numbers of the components that were given up on.
+     */
+    public List<Integer> getFailed() {
+        synchronized (this.failed) {
+            return new ArrayList<>(this.failed);
+        }
+    }
+
+    /**
+     * @return A future that completes when every component has a state or was given up on.
+     */
+    public CompletableFuture<GetProgress> getCompletion() {
+        return this.completion;
+    }
+
+    @Override
+    public String toString() {
+        return "GetProgress{" + "function=" + this.function +
+                ", known=" + this.getKnown() + "/" + this.total +
+                ", failed=" + this.getFailed() +
+                ", done=" + this.completion.isDone() +
+                '}';
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.ridiekel.jeletask.client.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock free histogram of latencies, with buckets that double in size starting at 1 microsecond.
+ * Percentiles are reported as the upper bound of the bucket they fall in, so they are accurate within a factor of 2.
+ */
+public class LatencyHistogram {
+    private static final int BUCKETS = 40;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder count = new LongAdder();
+
+    public void record(long nanos) {
+        long micros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos));
+        int bucket = Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+        this.counts.incrementAndGet(bucket);
+        this.totalNanos.add(nanos);
+        this.count.increment();
+    }
+
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    public long getMeanMicros() {
+        long count = this.getCount();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(this.totalNanos.sum() / count);
+    }
+
+    /**
+     * @param percentile Between 0 and 100.
+     * @return The upper bound in microseconds of the bucket containing the percentile, 0 when nothing was recorded.
+     */
+    public long getPercentileMicros(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = this.counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long threshold = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= threshold) {
+                return 2L << i;
+            }
+        }
+        return 2L << (BUCKETS - 1);
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.counts.set(i, 0);
+        }
+        this.totalNanos.reset();
+        this.count.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{" + "count=" + this.getCount() +
+                ", mean=" + this.getMeanMicros() + "us" +
+                ", p50=" + this.getPercentileMicros(50) + "us" +
+                ", p99=" + this.getPercentileMicros(99) + "us" +
+                ", max=" + this.getPercentileMicros(100) + "us" +
+                '}';
+    }
+}
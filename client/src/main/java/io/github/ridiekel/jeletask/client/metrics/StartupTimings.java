@@ -0,0 +1,105 @@
+package io.github.ridiekel.jeletask.client.metrics;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * When each phase of a (re)start of a client began and ended, in milliseconds since the start.
+ * <p>
+ * Phases run at the same time where they can, so they overlap.
+ */
+public class StartupTimings {
+    public enum Phase {
+        /**
+         * Restoring the states of the snapshot file.
+         */
+        SNAPSHOT,
+        /**
+         * Finding the components that do not have a known state yet.
+         */
+        INDEX,
+        /**
+         * Connecting to the central unit.
+         */
+        CONNECT,
+        /**
+         * Registering for the events of all functions.
+         */
+        LOG,
+        /**
+         * Requesting the states of all components.
+         */
+        GROUP_GET,
+        /**
+         * Until every component has a known state.
+         */
+        READY
+    }
+
+    private final long start = System.nanoTime();
+    private final AtomicLongArray begun = new AtomicLongArray(Phase.values().length);
+    private final AtomicLongArray ended = new AtomicLongArray(Phase.values().length);
+
+    public StartupTimings() {
+        for (Phase phase : Phase.values()) {
+            this.begun.set(phase.ordinal(), -1);
+            this.ended.set(phase.ordinal(), -1);
+        }
+        this.begin(Phase.READY);
+    }
+
+    public void begin(Phase phase) {
+        this.begun.set(phase.ordinal(), System.nanoTime() - this.start);
+    }
+
+    public void end(Phase phase) {
+        this.ended.set(phase.ordinal(), System.nanoTime() - this.start);
+    }
+
+    public void run(Phase phase, Runnable runnable) {
+        this.begin(phase);
+        try {
+            runnable.run();
+        } finally {
+            this.end(phase);
+        }
+    }
+
+    /**
+     * Ends the phase when the future completes, normally or not.
+     */
+    public <T> CompletableFuture<T> time(Phase phase, CompletableFuture<T> future) {
+        future.whenComplete((v, e) -> this.end(phase));
+        return future;
+    }
+
+    /**
+     * @return -1 when the phase did not begin (yet).
+     */
+    public long getBeginMillis(Phase phase) {
+        long nanos = this.begun.get(phase.ordinal());
+        return nanos < 0 ? -1 : nanos / 1_000_000;
+    }
+
+    /**
+     * @return -1 when the phase did not end (yet).
+     */
+    public long getEndMillis(Phase phase) {
+        long nanos = this.ended.get(phase.ordinal());
+        return nanos < 0 ? -1 : nanos / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("StartupTimings{");
+        for (Phase phase : Phase.values()) {
+            if (phase.ordinal() > 0) {
+                builder.append(", ");
+            }
+            long begin = this.getBeginMillis(phase);
+            long end = this.getEndMillis(phase);
+            builder.append(phase).append('=').append(begin < 0 ? "-" : begin).append("..").append(end < 0 ? "-" : end).append("ms");
+        }
+        return builder.append('}').toString();
+    }
+}
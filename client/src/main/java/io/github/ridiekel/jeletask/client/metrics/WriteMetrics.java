@@ -0,0 +1,59 @@
+package io.github.ridiekel.jeletask.client.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how many frames were coalesced into each write to the connection.
+ */
+public class WriteMetrics {
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final AtomicInteger maxFramesPerWrite = new AtomicInteger();
+
+    public void record(int frames, int bytes) {
+        this.writes.increment();
+        this.frames.add(frames);
+        this.bytes.add(bytes);
+        this.maxFramesPerWrite.accumulateAndGet(frames, Math::max);
+    }
+
+    public long getWrites() {
+        return this.writes.sum();
+    }
+
+    public long getFrames() {
+        return this.frames.sum();
+    }
+
+    public long getBytes() {
+        return this.bytes.sum();
+    }
+
+    public double getFramesPerWrite() {
+        long writes = this.getWrites();
+        return writes == 0 ? 0 : (double) this.getFrames() / writes;
+    }
+
+    public int getMaxFramesPerWrite() {
+        return this.maxFramesPerWrite.get();
+    }
+
+    public void reset() {
+        this.writes.reset();
+        this.frames.reset();
+        this.bytes.reset();
+        this.maxFramesPerWrite.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "WriteMetrics{" + "writes=" + this.getWrites() +
+                ", frames=" + this.getFrames() +
+                ", bytes=" + this.getBytes() +
+                ", framesPerWrite=" + String.format("%.2f", this.getFramesPerWrite()) +
+                ", maxFramesPerWrite=" + this.getMaxFramesPerWrite() +
+                '}';
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.ridiekel.jeletask.client.transport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * One selector thread waiting for data on the connections of many central units.
+ * <p>
+ * When a connection becomes readable, its read handler is called on the thread of the loop. A handler should only
+ * read and decode what is available and never block, because it delays all other connections of the loop.
+ */
+public class EventLoop implements Closeable {
+    /**
+     * Logger responsible for logging and debugging statements.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(EventLoop.class);
+
+    private final Selector selector;
+    private final Thread thread;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean running = true;
+
+    public EventLoop(String name) throws IOException {
+        this.selector = Selector.open();
+        this.thread = new Thread(this::run, name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * @param channel    A non blocking channel.
+     * @param onReadable Called on the loop thread every time the channel has data available.
+     *                   When it throws an exception, the channel is removed from the loop.
+     */
+    public void register(SelectableChannel channel, ReadHandler onReadable) {
+        this.execute(() -> {
+            try {
+                channel.register(this.selector, SelectionKey.OP_READ, onReadable);
+            } catch (IOException e) {
+                LOG.error("Exception ({}) caught in register: {}", e.getClass().getName(), e.getMessage());
+            }
+        });
+    }
+
+    public int getChannelCount() {
+        return this.selector.keys().size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.running = false;
+        this.selector.wakeup();
+        try {
+            this.thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.selector.close();
+    }
+
+    private void execute(Runnable task) {
+        this.tasks.add(task);
+        this.selector.wakeup();
+    }
+
+    private void run() {
+        while (this.running) {
+            try {
+                this.selector.select();
+                Runnable task;
+                while ((task = this.tasks.poll()) != null) {
+                    task.run();
+                }
+                Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    this.read(key);
+                }
+            } catch (Exception e) {
+                LOG.error("Exception ({}) caught in EventLoop: {}", e.getClass().getName(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private void read(SelectionKey key) {
+        if (key.isValid() && key.isReadable()) {
+            try {
+                ((ReadHandler) key.attachment()).onReadable();
+            } catch (Exception e) {
+                // Mostly a closed connection, which would otherwise stay readable forever.
+                LOG.debug("Exception ({}) caught in EventLoop: {}", e.getClass().getName(), e.getMessage());
+                key.cancel();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface ReadHandler {
+        void onReadable() throws Exception;
+    }
+}
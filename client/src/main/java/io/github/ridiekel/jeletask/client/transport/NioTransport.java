@@ -0,0 +1,125 @@
+package io.github.ridiekel.jeletask.client.transport;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+
+public class NioTransport implements Transport {
+    private static final int RECEIVE_BUFFER_SIZE = 4096;
+    private static final int CONNECT_TIMEOUT_MILLIS = 2000;
+    private static final int WRITE_TIMEOUT_MILLIS = 2000;
+
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(RECEIVE_BUFFER_SIZE).flip();
+
+    private SocketChannel channel;
+    private Selector readSelector;
+    private Selector writeSelector;
+
+    @Override
+    public void connect(String host, int port) throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        try {
+            channel.setOption(StandardSocketOptions.SO_KEEPALIVE, true);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.socket().connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+            channel.configureBlocking(false);
+
+            this.readSelector = Selector.open();
+            this.writeSelector = Selector.open();
+            channel.register(this.readSelector, SelectionKey.OP_READ);
+            channel.register(this.writeSelector, SelectionKey.OP_WRITE);
+        } catch (IOException e) {
+            channel.close();
+            this.closeSelectors();
+            throw e;
+        }
+        this.channel = channel;
+    }
+
+    @Override
+    public ByteBuffer read(long timeoutMillis) throws IOException {
+        ByteBuffer buffer = this.receiveBuffer.compact();
+        try {
+            int read = this.channel.read(buffer);
+            if (read == 0 && timeoutMillis > 0 && this.readSelector.select(timeoutMillis) > 0) {
+                this.readSelector.selectedKeys().clear();
+                read = this.channel.read(buffer);
+            }
+            if (read < 0) {
+                throw new EOFException("Connection closed by the central unit");
+            }
+        } finally {
+            buffer.flip();
+        }
+        return buffer;
+    }
+
+    @Override
+    public void write(byte[] message) throws IOException {
+        this.write(new ByteBuffer[]{ByteBuffer.wrap(message)});
+    }
+
+    /**
+     * @throws SocketTimeoutException When the central unit did not read the messages within {@link #WRITE_TIMEOUT_MILLIS}, the connection should be reset.
+     */
+    @Override
+    public void write(ByteBuffer[] messages) throws IOException {
+        long remaining = 0;
+        for (ByteBuffer message : messages) {
+            remaining += message.remaining();
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WRITE_TIMEOUT_MILLIS);
+        while (remaining > 0) {
+            long written = this.channel.write(messages);
+            remaining -= written;
+            if (written == 0) {
+                // The socket send buffer is full, wait until the central unit catches up.
+                long waitMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (waitMillis <= 0) {
+                    throw new SocketTimeoutException(String.format("The central unit did not read %s bytes within %s ms", remaining, WRITE_TIMEOUT_MILLIS));
+                }
+                this.writeSelector.select(waitMillis);
+                this.writeSelector.selectedKeys().clear();
+            }
+        }
+    }
+
+    /**
+     * @return The channel, so an {@link EventLoop} can wait for it to become readable.
+     */
+    public SocketChannel getChannel() {
+        return this.channel;
+    }
+
+    @Override
+    public boolean isConnected() {
+        return this.channel != null && this.channel.isConnected();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (this.channel != null) {
+                this.channel.close();
+            }
+        } finally {
+            this.closeSelectors();
+        }
+    }
+
+    private void closeSelectors() throws IOException {
+        if (this.readSelector != null) {
+            this.readSelector.close();
+        }
+        if (this.writeSelector != null) {
+            this.writeSelector.close();
+        }
+    }
+}
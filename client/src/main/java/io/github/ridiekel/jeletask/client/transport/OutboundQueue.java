@@ -0,0 +1,186 @@
+package io.github.ridiekel.jeletask.client.transport;
+
+import io.github.ridiekel.jeletask.client.metrics.WriteMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Frames waiting to be written to the connection.
+ * <p>
+ * Any thread can add frames, a single drain task on the writer executor writes everything that is pending at once.
+ * A burst of messages (e.g. a mood switching a lot of relays) therefore results in a few large writes instead of one write per frame.
+ * The executor can be shared with other connections, only one drain of a queue runs at a time so the frames are written in the order they were added.
+ * <p>
+ * Frames are composed by the thread that adds them, right into the buffer the next drain writes.
+ * The queue swaps between two buffers, so adding and writing a frame does not create any objects once the buffers are large enough.
+ */
+public class OutboundQueue {
+    /**
+     * Logger responsible for logging and debugging statements.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(OutboundQueue.class);
+
+    /**
+     * Room for a frame that is longer than a central unit accepts, it is only rejected once it is composed.
+     */
+    private static final int MIN_BUFFER_BYTES = 1024;
+
+    private final Object lock = new Object();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+
+    private final Supplier<Transport> transport;
+    private final ScheduledExecutorService executor;
+    private final int maxBatchBytes;
+    private final long maxLingerMicros;
+    private final WriteMetrics metrics;
+
+    // Guarded by the lock: the frames added since the last drain and the position where each of them ends.
+    private ByteBuffer filling;
+    private int[] fillingEnds = new int[64];
+    private int fillingFrames;
+
+    // Only used by the drain.
+    private ByteBuffer writing;
+    private int[] writingEnds = new int[64];
+    private int writingFrames;
+    private final ByteBuffer[] batch = new ByteBuffer[1];
+
+    /**
+     * @param maxBatchBytes   A write contains at most this amount of bytes, unless a single frame is larger.
+     * @param maxLingerMicros How long the first frame of a batch waits for more frames to arrive, 0 to write right away.
+     */
+    public OutboundQueue(Supplier<Transport> transport, ScheduledExecutorService executor, int maxBatchBytes, long maxLingerMicros, WriteMetrics metrics) {
+        this.transport = transport;
+        this.executor = executor;
+        this.maxBatchBytes = maxBatchBytes;
+        this.maxLingerMicros = maxLingerMicros;
+        this.metrics = metrics;
+        this.filling = ByteBuffer.allocate(Math.max(maxBatchBytes, MIN_BUFFER_BYTES));
+        this.writing = ByteBuffer.allocate(Math.max(maxBatchBytes, MIN_BUFFER_BYTES));
+    }
+
+    /**
+     * Writes one complete frame at the position of the buffer.
+     * It is called again with a larger buffer when the frame did not fit, so it must not have any other side effects.
+     */
+    @FunctionalInterface
+    public interface FrameWriter {
+        void writeTo(ByteBuffer dst);
+    }
+
+    /**
+     * Composes the frame on the calling thread and schedules a drain.
+     *
+     * @throws RuntimeException The exception of the writer, nothing of the frame is queued then.
+     */
+    public void add(FrameWriter frame) {
+        synchronized (this.lock) {
+            int start = this.filling.position();
+            while (true) {
+                try {
+                    frame.writeTo(this.filling);
+                    break;
+                } catch (BufferOverflowException e) {
+                    this.filling.position(start);
+                    this.filling = grow(this.filling);
+                } catch (RuntimeException e) {
+                    this.filling.position(start);
+                    throw e;
+                }
+            }
+            if (this.fillingFrames == this.fillingEnds.length) {
+                this.fillingEnds = Arrays.copyOf(this.fillingEnds, this.fillingEnds.length * 2);
+            }
+            this.fillingEnds[this.fillingFrames++] = this.filling.position();
+        }
+        if (this.drainScheduled.compareAndSet(false, true)) {
+            if (this.maxLingerMicros > 0) {
+                this.executor.schedule(this::drain, this.maxLingerMicros, TimeUnit.MICROSECONDS);
+            } else {
+                this.executor.execute(this::drain);
+            }
+        }
+    }
+
+    /**
+     * Drops the frames that were not written yet, for instance because the connection was closed.
+     */
+    public void clear() {
+        synchronized (this.lock) {
+            this.filling.clear();
+            this.fillingFrames = 0;
+        }
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer) {
+        ByteBuffer grown = ByteBuffer.allocate(buffer.capacity() * 2);
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+
+    private synchronized void drain() {
+        // Frames added from now on schedule a new drain, so nothing is left behind when this one stops.
+        this.drainScheduled.set(false);
+
+        synchronized (this.lock) {
+            ByteBuffer buffer = this.writing;
+            this.writing = this.filling;
+            this.filling = buffer;
+            int[] ends = this.writingEnds;
+            this.writingEnds = this.fillingEnds;
+            this.fillingEnds = ends;
+            this.writingFrames = this.fillingFrames;
+            this.fillingFrames = 0;
+        }
+
+        this.writing.flip();
+        int frame = 0;
+        while (frame < this.writingFrames) {
+            int start = this.writing.position();
+            int first = frame;
+            int end = this.writingEnds[frame++];
+            while (frame < this.writingFrames && this.writingEnds[frame] - start <= this.maxBatchBytes) {
+                end = this.writingEnds[frame++];
+            }
+            this.writing.limit(end);
+            if (!this.write(frame - first, end - start)) {
+                break;
+            }
+            this.writing.position(end);
+        }
+        this.writing.clear();
+        this.writingFrames = 0;
+    }
+
+    private boolean write(int frames, int bytes) {
+        Transport transport = this.transport.get();
+        try {
+            if (transport == null) {
+                throw new IOException("Not connected");
+            }
+            this.batch[0] = this.writing;
+            transport.write(this.batch);
+            this.metrics.record(frames, bytes);
+            if (LOG.isTraceEnabled()) {
+                LOG.trace("Wrote {} frame(s), {} bytes", frames, bytes);
+            }
+            return true;
+        } catch (IOException e) {
+            // The connection is broken, the frames that are still pending would only wait for the same timeout.
+            // Their messages are not acknowledged, which resets the connection.
+            this.clear();
+            LOG.error("Exception ({}) caught in send: {}", e.getClass().getName(), e.getMessage(), e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.ridiekel.jeletask.client.transport;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+
+public class SocketTransport implements Transport {
+    private static final int RECEIVE_BUFFER_SIZE = 4096;
+    private static final int POLL_INTERVAL_MILLIS = 10;
+
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocate(RECEIVE_BUFFER_SIZE).flip();
+
+    private Socket socket;
+    private InputStream inputStream;
+    private OutputStream outputStream;
+
+    public SocketTransport() {
+    }
+
+    public SocketTransport(Socket socket) throws IOException {
+        this.open(socket);
+    }
+
+    @Override
+    public void connect(String host, int port) throws IOException {
+        Socket socket = new Socket(host, port);
+        socket.setKeepAlive(true);
+        socket.setSoTimeout(2000);
+        this.open(socket);
+    }
+
+    private void open(Socket socket) throws IOException {
+        this.socket = socket;
+        this.inputStream = socket.getInputStream();
+        this.outputStream = socket.getOutputStream();
+    }
+
+    @Override
+    public ByteBuffer read(long timeoutMillis) throws IOException {
+        ByteBuffer buffer = this.receiveBuffer.compact();
+        try {
+            long start = System.currentTimeMillis();
+            int available = this.inputStream.available();
+            while (available <= 0 && (System.currentTimeMillis() - start) < timeoutMillis) {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+                available = this.inputStream.available();
+            }
+            if (available > 0) {
+                int read = this.inputStream.read(buffer.array(), buffer.arrayOffset() + buffer.position(), Math.min(available, buffer.remaining()));
+                if (read < 0) {
+                    throw new EOFException("Connection closed by the central unit");
+                }
+                buffer.position(buffer.position() + read);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            buffer.flip();
+        }
+        return buffer;
+    }
+
+    @Override
+    public void write(byte[] message) throws IOException {
+        this.outputStream.write(message);
+        this.outputStream.flush();
+    }
+
+    /**
+     * A socket stream can not gather, so several buffers are copied into one array first.
+     */
+    @Override
+    public void write(ByteBuffer[] messages) throws IOException {
+        if (messages.length == 1 && messages[0].hasArray()) {
+            ByteBuffer message = messages[0];
+            this.outputStream.write(message.array(), message.arrayOffset() + message.position(), message.remaining());
+            this.outputStream.flush();
+            message.position(message.limit());
+        } else {
+            int length = 0;
+            for (ByteBuffer message : messages) {
+                length += message.remaining();
+            }
+            byte[] batch = new byte[length];
+            int offset = 0;
+            for (ByteBuffer message : messages) {
+                int remaining = message.remaining();
+                message.get(batch, offset, remaining);
+                offset += remaining;
+            }
+            this.write(batch);
+        }
+    }
+
+    @Override
+    public boolean isConnected() {
+        return this.socket != null && this.socket.isConnected() && !this.socket.isClosed();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.socket != null) {
+            this.socket.close();
+        }
+    }
+}
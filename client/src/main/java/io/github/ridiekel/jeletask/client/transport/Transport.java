@@ -0,0 +1,32 @@
+package io.github.ridiekel.jeletask.client.transport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * The byte level connection to a central unit.
+ */
+public interface Transport extends Closeable {
+    void connect(String host, int port) throws IOException;
+
+    /**
+     * Waits at most the given amount of milliseconds for data to arrive.
+     * The returned buffer is reused between calls and is in read mode. It contains the newly received bytes, preceded
+     * by any bytes the caller did not consume during the previous call.
+     *
+     * @param timeoutMillis The maximum time to wait for data, 0 to only return what is already available.
+     * @return The receive buffer, possibly without any remaining bytes.
+     * @throws IOException When the connection was closed or could not be read.
+     */
+    ByteBuffer read(long timeoutMillis) throws IOException;
+
+    void write(byte[] message) throws IOException;
+
+    /**
+     * Writes the remaining bytes of all buffers, as a single write to the connection where possible.
+     */
+    void write(ByteBuffer[] messages) throws IOException;
+
+    boolean isConnected();
+}
@@ -0,0 +1,24 @@
+package io.github.ridiekel.jeletask.client.transport;
+
+import java.util.function.Supplier;
+
+public enum TransportType {
+    /**
+     * A plain {@link java.net.Socket}, polling the input stream for available bytes.
+     */
+    BLOCKING(SocketTransport::new),
+    /**
+     * A non blocking {@link java.nio.channels.SocketChannel}, only waking up when bytes arrive.
+     */
+    NIO(NioTransport::new);
+
+    private final Supplier<Transport> factory;
+
+    TransportType(Supplier<Transport> factory) {
+        this.factory = factory;
+    }
+
+    public Transport createTransport() {
+        return this.factory.get();
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.ridiekel.jeletask.client;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Counts the bytes the current thread allocates, for the tests that measure allocations.
+ */
+public final class Allocations {
+    private Allocations() {
+    }
+
+    /**
+     * @return true when the JVM tells how many bytes a thread allocated.
+     */
+    public static boolean isSupported() {
+        return ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean;
+    }
+
+    /**
+     * @return The bytes allocated by the current thread, or -1 when the JVM does not tell.
+     */
+    public static long getAllocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
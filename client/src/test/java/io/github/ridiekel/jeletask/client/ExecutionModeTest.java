@@ -0,0 +1,136 @@
+package io.github.ridiekel.jeletask.client;
+
+import io.github.ridiekel.jeletask.client.metrics.GetProgress;
+import io.github.ridiekel.jeletask.config.model.json.JsonCentralUnit;
+import io.github.ridiekel.jeletask.config.model.json.TDSComponent;
+import io.github.ridiekel.jeletask.model.spec.CentralUnitType;
+import io.github.ridiekel.jeletask.model.spec.ComponentSpec;
+import io.github.ridiekel.jeletask.model.spec.Function;
+import io.github.ridiekel.jeletask.server.TeletaskTestServer;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExecutionModeTest {
+    /**
+     * Logger responsible for logging and debugging statements.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(ExecutionModeTest.class);
+
+    private static final Function[] FUNCTIONS = {Function.RELAY, Function.LOCMOOD, Function.FLAG};
+    private static final int COMPONENTS_PER_FUNCTION = 5;
+
+    @Test
+    void virtualThreadsNeedJava21() {
+        if (Runtime.version().feature() >= 21) {
+            ExecutorService executor = ExecutionMode.VIRTUAL_THREADS.createExecutor("io");
+            executor.shutdown();
+            return;
+        }
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> ExecutionMode.VIRTUAL_THREADS.createExecutor("io"));
+        assertTrue(e.getMessage().contains("Java 21"), e.getMessage());
+    }
+
+    @Test
+    void platformThreadRunsTasksOneAfterTheOther() throws InterruptedException {
+        ExecutorService executor = ExecutionMode.PLATFORM_THREAD.createExecutor("io");
+        List<String> threads = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            executor.execute(() -> threads.add(Thread.currentThread().getName()));
+        }
+        executor.shutdown();
+
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(List.of("io", "io", "io"), threads);
+    }
+
+    /**
+     * Not an assertion on the times, they depend on the machine.
+     * The group gets of a MICROS wait for every answer, the platform thread runs the functions one after the other.
+     */
+    @Test
+    void platformThreadGroupGet() throws Exception {
+        LOG.info("{}: group get of {} functions in {}ms", ExecutionMode.PLATFORM_THREAD, FUNCTIONS.length, measureGroupGet(ExecutionMode.PLATFORM_THREAD));
+    }
+
+    @Test
+    void virtualThreadsGroupGet() throws Exception {
+        Assumptions.assumeTrue(Runtime.version().feature() >= 21, "Virtual threads need Java 21 or later");
+        LOG.info("{}: group get of {} functions in {}ms", ExecutionMode.VIRTUAL_THREADS, FUNCTIONS.length, measureGroupGet(ExecutionMode.VIRTUAL_THREADS));
+    }
+
+    /**
+     * @return The time {@link TeletaskClient#groupGet()} took to get every state again.
+     */
+    private static long measureGroupGet(ExecutionMode executionMode) throws Exception {
+        int port;
+        try (ServerSocket free = new ServerSocket(0)) {
+            port = free.getLocalPort();
+        }
+        JsonCentralUnit centralUnit = new JsonCentralUnit("localhost", port);
+        centralUnit.setType(CentralUnitType.MICROS);
+        Map<Function, List<TDSComponent>> components = new EnumMap<>(Function.class);
+        for (Function function : FUNCTIONS) {
+            List<TDSComponent> list = new ArrayList<>();
+            for (int number = 1; number <= COMPONENTS_PER_FUNCTION; number++) {
+                list.add(new TDSComponent(function, null, number));
+            }
+            components.put(function, list);
+        }
+        centralUnit.setComponentsTypes(components);
+        centralUnit.getAllComponents().forEach(c -> c.setState("OFF"));
+
+        TeletaskClientOptions options = new TeletaskClientOptions();
+        options.setExecutionMode(executionMode);
+        TeletaskClientImpl client = new TeletaskClientImpl(centralUnit, options);
+        TeletaskTestServer server = new TeletaskTestServer(port, client);
+        new Thread(server, "test-server").start();
+        try {
+            client.start();
+
+            Map<Function, GetProgress> before = new EnumMap<>(Function.class);
+            for (Function function : FUNCTIONS) {
+                before.put(function, client.getMetrics().getGetProgress(function));
+            }
+            centralUnit.getAllComponents().forEach(c -> c.setStale(true));
+
+            long start = System.nanoTime();
+            client.groupGet();
+            await("Group get").atMost(60, TimeUnit.SECONDS).until(() -> isDone(client, before));
+            long millis = (System.nanoTime() - start) / 1_000_000;
+
+            for (ComponentSpec component : centralUnit.getAllComponents()) {
+                assertEquals("OFF", component.getState());
+            }
+            return millis;
+        } finally {
+            client.stop();
+            server.stop();
+        }
+    }
+
+    private static boolean isDone(TeletaskClientImpl client, Map<Function, GetProgress> before) {
+        for (Function function : FUNCTIONS) {
+            GetProgress progress = client.getMetrics().getGetProgress(function);
+            if (progress == before.get(function) || !progress.getCompletion().isDone()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.ridiekel.jeletask.client;
+
+import io.github.ridiekel.jeletask.config.model.json.JsonCentralUnit;
+import io.github.ridiekel.jeletask.config.model.json.TDSComponent;
+import io.github.ridiekel.jeletask.model.spec.CentralUnitType;
+import io.github.ridiekel.jeletask.model.spec.ComponentSpec;
+import io.github.ridiekel.jeletask.model.spec.Function;
+import io.github.ridiekel.jeletask.server.TeletaskTestServer;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FullSyncTest {
+    /**
+     * Logger responsible for logging and debugging statements.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(FullSyncTest.class);
+
+    private static final int RELAYS = 1000;
+
+    /**
+     * Not an assertion on the times, they depend on the machine.
+     * The group get of 1000 relays does not fit in one MICROS+ frame, it is split over frames of at most 125 outputs.
+     */
+    @Test
+    void fullSyncOf1000Relays() throws Exception {
+        for (int pipelineDepth : new int[]{1, 8}) {
+            Sync sync = measureFullSync(pipelineDepth);
+            LOG.info("Full sync of {} relays with pipeline depth {}: {}ms, {} frames written", RELAYS, pipelineDepth, sync.millis, sync.frames);
+            assertTrue(sync.frames >= (RELAYS + 124) / 125, String.valueOf(sync.frames));
+        }
+    }
+
+    private static Sync measureFullSync(int pipelineDepth) throws Exception {
+        int port;
+        try (ServerSocket free = new ServerSocket(0)) {
+            port = free.getLocalPort();
+        }
+        JsonCentralUnit centralUnit = new JsonCentralUnit("localhost", port);
+        centralUnit.setType(CentralUnitType.MICROS_PLUS);
+        List<TDSComponent> relays = new ArrayList<>();
+        for (int number = 1; number <= RELAYS; number++) {
+            relays.add(new TDSComponent(Function.RELAY, null, number));
+        }
+        centralUnit.setComponentsTypes(Map.of(Function.RELAY, relays));
+        centralUnit.getAllComponents().forEach(c -> c.setState(c.getNumber() % 2 == 0 ? "ON" : "OFF"));
+
+        TeletaskClientOptions options = new TeletaskClientOptions();
+        options.setPipelineDepth(pipelineDepth);
+        TeletaskClientImpl client = new TeletaskClientImpl(centralUnit, options);
+        TeletaskTestServer server = new TeletaskTestServer(port, client);
+        new Thread(server, "test-server").start();
+        try {
+            client.start();
+            client.whenReady().get(60, TimeUnit.SECONDS);
+
+            centralUnit.getAllComponents().forEach(c -> c.setStale(true));
+            long framesBefore = client.getMetrics().getWrites().getFrames();
+
+            long start = System.nanoTime();
+            client.groupGet(Function.RELAY);
+            await("Full sync").atMost(60, TimeUnit.SECONDS).until(() -> centralUnit.getAllComponents().stream().noneMatch(ComponentSpec::isStale));
+            long millis = (System.nanoTime() - start) / 1_000_000;
+
+            for (ComponentSpec component : centralUnit.getAllComponents()) {
+                assertEquals(component.getNumber() % 2 == 0 ? "ON" : "OFF", component.getState(), String.valueOf(component.getNumber()));
+            }
+            return new Sync(millis, client.getMetrics().getWrites().getFrames() - framesBefore);
+        } finally {
+            client.stop();
+            server.stop();
+        }
+    }
+
+    private static final class Sync {
+        private final long millis;
+        private final long frames;
+
+        private Sync(long millis, long frames) {
+            this.millis = millis;
+            this.frames = frames;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.ridiekel.jeletask.client;
+
+import io.github.ridiekel.jeletask.config.model.json.TDSComponent;
+import io.github.ridiekel.jeletask.model.spec.Function;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadinessTrackerTest {
+    private final TDSComponent first = new TDSComponent(Function.RELAY, null, 1);
+    private final TDSComponent second = new TDSComponent(Function.RELAY, null, 2);
+
+    @Test
+    void readyWhenEveryStateIsKnown() {
+        ReadinessTracker tracker = new ReadinessTracker(List.of(this.first, this.second));
+
+        this.first.setState("ON");
+        tracker.stateChanged(this.first);
+        assertFalse(tracker.getReady().isDone());
+
+        this.second.setState("OFF");
+        tracker.sweep();
+        assertTrue(tracker.getReady().isDone());
+    }
+
+    @Test
+    void staleStatesAreNotKnown() {
+        this.first.setState("ON");
+        this.first.setStale(true);
+
+        ReadinessTracker tracker = new ReadinessTracker(List.of(this.first));
+
+        assertEquals(1, tracker.getUnknownCount());
+        this.first.setStale(false);
+        tracker.stateChanged(this.first);
+        assertTrue(tracker.getReady().isDone());
+    }
+
+    @Test
+    void readyWhenTheOthersWereGivenUpOn() {
+        ReadinessTracker tracker = new ReadinessTracker(List.of(this.first, this.second));
+
+        this.first.setState("ON");
+        tracker.stateChanged(this.first);
+        tracker.gaveUp(this.second);
+
+        assertTrue(tracker.getReady().isDone());
+        assertEquals(0, tracker.getUnknownCount());
+    }
+
+    @Test
+    void cancelledTrackerIsNeverReady() {
+        ReadinessTracker tracker = new ReadinessTracker(List.of(this.first));
+
+        tracker.cancel();
+        this.first.setState("ON");
+        tracker.stateChanged(this.first);
+
+        assertTrue(tracker.getReady().isCancelled());
+    }
+}
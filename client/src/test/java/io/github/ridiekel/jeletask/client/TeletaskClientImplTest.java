@@ -0,0 +1,163 @@
+package io.github.ridiekel.jeletask.client;
+
+import io.github.ridiekel.jeletask.client.builder.message.messages.AcknowledgeException;
+import io.github.ridiekel.jeletask.config.model.json.JsonCentralUnit;
+import io.github.ridiekel.jeletask.config.model.json.TDSComponent;
+import io.github.ridiekel.jeletask.model.spec.CentralUnitType;
+import io.github.ridiekel.jeletask.model.spec.Function;
+import io.github.ridiekel.jeletask.server.TeletaskTestServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TeletaskClientImplTest {
+    private final List<Socket> connections = new CopyOnWriteArrayList<>();
+    private ServerSocket serverSocket;
+    private TeletaskClientImpl client;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (this.client != null) {
+            this.client.stop();
+        }
+        this.stopCentralUnit();
+    }
+
+    /**
+     * A message that times out while the client is reconnecting must not leave the in flight queue waiting for a reset forever.
+     */
+    @Test
+    void acknowledgeTimeoutDuringRestartResetsTheConnectionAgain() throws Exception {
+        int port = this.startCentralUnit(0);
+        JsonCentralUnit centralUnit = new JsonCentralUnit("localhost", port);
+        centralUnit.setType(CentralUnitType.MICROS_PLUS);
+        centralUnit.setComponentsTypes(Map.of(Function.RELAY, List.of(new TDSComponent(Function.RELAY, null, 1))));
+        centralUnit.getComponent(Function.RELAY, 1).setState("OFF");
+
+        TeletaskClientOptions options = new TeletaskClientOptions();
+        options.setAcknowledgeTimeoutMillis(200);
+        options.setEventTimeoutMillis(100);
+        this.client = new TeletaskClientImpl(centralUnit, options);
+        this.client.start();
+
+        // The central unit is gone, the restart keeps trying to connect
+        this.stopCentralUnit();
+        CompletableFuture<Void> restart = CompletableFuture.runAsync(this.client::restart);
+        Thread.sleep(300);
+
+        // Like a group get strategy that runs while restarting
+        ExecutionException e = assertThrows(ExecutionException.class, () -> this.client.sendGet(centralUnit.getComponent(Function.RELAY, 1)).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(AcknowledgeException.class, e.getCause());
+
+        this.startCentralUnit(port);
+        restart.get(30, TimeUnit.SECONDS);
+
+        // Well before the keep alive of the MICROS+ (every 5 seconds) would notice
+        await("Reset after the restart").atMost(2, TimeUnit.SECONDS).until(() -> this.client.getMetrics().getReconnects() == 2);
+        // Acknowledged, the central unit just never sends an event
+        e = assertThrows(ExecutionException.class, () -> this.client.sendGet(centralUnit.getComponent(Function.RELAY, 1)).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, e.getCause());
+    }
+
+    @Test
+    void toggleIsConfirmedByTheNewState() throws Exception {
+        int port;
+        try (ServerSocket free = new ServerSocket(0)) {
+            port = free.getLocalPort();
+        }
+        JsonCentralUnit centralUnit = new JsonCentralUnit("localhost", port);
+        centralUnit.setType(CentralUnitType.MICROS_PLUS);
+        centralUnit.setComponentsTypes(Map.of(Function.RELAY, List.of(new TDSComponent(Function.RELAY, null, 1))));
+        centralUnit.getComponent(Function.RELAY, 1).setState("OFF");
+
+        TeletaskClientOptions options = new TeletaskClientOptions();
+        options.setEventTimeoutMillis(5000);
+        this.client = new TeletaskClientImpl(centralUnit, options);
+        TeletaskTestServer server = new TeletaskTestServer(port, this.client);
+        new Thread(server, "test-server").start();
+        try {
+            // Connecting is retried until the test server listens
+            this.client.start();
+
+            // Well within the event timeout
+            assertEquals("ON", this.client.set(Function.RELAY, 1, "TOGGLE").get(2, TimeUnit.SECONDS).getState());
+            assertEquals("OFF", this.client.set(Function.RELAY, 1, "TOGGLE").get(2, TimeUnit.SECONDS).getState());
+        } finally {
+            this.client.stop();
+            this.client = null;
+            server.stop();
+        }
+    }
+
+    /**
+     * Acknowledges every frame, but never sends an event.
+     */
+    private int startCentralUnit(int port) throws IOException {
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.setReuseAddress(true);
+        this.serverSocket.bind(new InetSocketAddress("localhost", port));
+        ServerSocket serverSocket = this.serverSocket;
+        Thread server = new Thread(() -> {
+            try {
+                while (true) {
+                    Socket socket = serverSocket.accept();
+                    this.connections.add(socket);
+                    Thread connection = new Thread(() -> acknowledge(socket), "central-unit-connection");
+                    connection.setDaemon(true);
+                    connection.start();
+                }
+            } catch (IOException e) {
+                // The central unit was stopped
+            }
+        }, "central-unit");
+        server.setDaemon(true);
+        server.start();
+        return serverSocket.getLocalPort();
+    }
+
+    private void stopCentralUnit() throws IOException {
+        if (this.serverSocket == null) {
+            return;
+        }
+        this.serverSocket.close();
+        for (Socket connection : this.connections) {
+            connection.close();
+        }
+        this.connections.clear();
+    }
+
+    private static void acknowledge(Socket socket) {
+        try {
+            InputStream in = socket.getInputStream();
+            OutputStream out = socket.getOutputStream();
+            int b;
+            while ((b = in.read()) >= 0) {
+                if (b == 2) {
+                    in.readNBytes(in.read() - 1);
+                    out.write(10);
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            // The connection was closed
+        }
+    }
+}
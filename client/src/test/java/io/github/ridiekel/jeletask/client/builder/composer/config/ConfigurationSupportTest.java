@@ -0,0 +1,154 @@
+package io.github.ridiekel.jeletask.client.builder.composer.config;
+
+import io.github.ridiekel.jeletask.client.Allocations;
+import io.github.ridiekel.jeletask.client.builder.composer.MessageHandler;
+import io.github.ridiekel.jeletask.client.builder.composer.MessageHandlerFactory;
+import io.github.ridiekel.jeletask.model.spec.CentralUnitType;
+import io.github.ridiekel.jeletask.model.spec.Command;
+import io.github.ridiekel.jeletask.model.spec.Function;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigurationSupportTest {
+    /**
+     * Logger responsible for logging and debugging statements.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(ConfigurationSupportTest.class);
+
+    @Test
+    void everyNumberResolvesBothWays() {
+        for (CentralUnitType type : new CentralUnitType[]{CentralUnitType.MICROS, CentralUnitType.MICROS_PLUS}) {
+            MessageHandler messageHandler = MessageHandlerFactory.getMessageHandler(type);
+            for (Command command : Command.values()) {
+                if (messageHandler.knows(command)) {
+                    int number = messageHandler.getCommandConfig(command).getNumber();
+                    assertSame(command, messageHandler.getCommand(number), type + " " + command);
+                    assertSame(command, messageHandler.getCommand((byte) number), type + " " + command + " as a signed byte");
+                }
+            }
+            for (Function function : Function.values()) {
+                if (messageHandler.knows(function)) {
+                    int number = messageHandler.getFunctionConfig(function).getNumber();
+                    assertSame(function, messageHandler.getFunction(number), type + " " + function);
+                    assertSame(function, messageHandler.getFunction((byte) number), type + " " + function + " as a signed byte");
+                }
+            }
+        }
+    }
+
+    @Test
+    void unknownNumbersAreRejected() {
+        MessageHandler messageHandler = MessageHandlerFactory.getMessageHandler(CentralUnitType.MICROS_PLUS);
+
+        assertThrows(IllegalStateException.class, () -> messageHandler.getFunction(256));
+        assertThrows(IllegalStateException.class, () -> messageHandler.getFunction(-129));
+        assertThrows(IllegalStateException.class, () -> messageHandler.getFunction(unknownNumber(messageHandler)));
+    }
+
+    /**
+     * Not an assertion on the time, it depends on the machine.
+     * Looks up the command and function of received frames, next to the boxed map lookup the configuration used to do.
+     */
+    @Test
+    void dispatchDoesNotAllocate() {
+        MessageHandler messageHandler = MessageHandlerFactory.getMessageHandler(CentralUnitType.MICROS_PLUS);
+        byte[] commands = received(messageHandler, true);
+        byte[] functions = received(messageHandler, false);
+        Map<Integer, Command> commandMap = new HashMap<>();
+        Map<Integer, Function> functionMap = new HashMap<>();
+        for (int i = 0; i < commands.length; i++) {
+            commandMap.put(commands[i] & 0xff, messageHandler.getCommand(commands[i]));
+            functionMap.put(functions[i] & 0xff, messageHandler.getFunction(functions[i]));
+        }
+        // Warm up
+        int hash = 0;
+        for (int i = 0; i < 20; i++) {
+            hash += dispatch(messageHandler, commands, functions) + dispatch(commandMap, functionMap, commands, functions);
+        }
+
+        int rounds = 100;
+        long allocatedBefore = Allocations.getAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            hash += dispatch(messageHandler, commands, functions);
+        }
+        long arrayNanos = System.nanoTime() - start;
+        long allocated = Allocations.getAllocatedBytes() - allocatedBefore;
+
+        start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            hash += dispatch(commandMap, functionMap, commands, functions);
+        }
+        long mapNanos = System.nanoTime() - start;
+
+        long lookups = 2L * rounds * commands.length;
+        LOG.info("{} lookups: arrays {} ns/lookup, {} bytes allocated; boxed map {} ns/lookup, checksum {}", lookups, (double) arrayNanos / lookups, allocated, (double) mapNanos / lookups, hash);
+        if (Allocations.isSupported()) {
+            assertTrue(allocated < 16 * 1024, allocated + " bytes allocated");
+        }
+    }
+
+    private static int dispatch(MessageHandler messageHandler, byte[] commands, byte[] functions) {
+        int hash = 0;
+        for (int i = 0; i < commands.length; i++) {
+            hash += messageHandler.getCommand(commands[i]).ordinal() + messageHandler.getFunction(functions[i]).ordinal();
+        }
+        return hash;
+    }
+
+    private static int dispatch(Map<Integer, Command> commandMap, Map<Integer, Function> functionMap, byte[] commands, byte[] functions) {
+        int hash = 0;
+        for (int i = 0; i < commands.length; i++) {
+            hash += commandMap.get(commands[i] & 0xff).ordinal() + functionMap.get(functions[i] & 0xff).ordinal();
+        }
+        return hash;
+    }
+
+    /**
+     * @return 100k command or function numbers as they are received, cycling through the known ones.
+     */
+    private static byte[] received(MessageHandler messageHandler, boolean commands) {
+        List<Integer> numbers = new ArrayList<>();
+        if (commands) {
+            for (Command command : Command.values()) {
+                if (messageHandler.knows(command)) {
+                    numbers.add(messageHandler.getCommandConfig(command).getNumber());
+                }
+            }
+        } else {
+            for (Function function : Function.values()) {
+                if (messageHandler.knows(function)) {
+                    numbers.add(messageHandler.getFunctionConfig(function).getNumber());
+                }
+            }
+        }
+        byte[] received = new byte[100_000];
+        for (int i = 0; i < received.length; i++) {
+            received[i] = (byte) (int) numbers.get(i % numbers.size());
+        }
+        return received;
+    }
+
+    private static int unknownNumber(MessageHandler messageHandler) {
+        for (int number = 0; number < 256; number++) {
+            boolean known = false;
+            for (Function function : Function.values()) {
+                known |= messageHandler.knows(function) && messageHandler.getFunctionConfig(function).getNumber() == number;
+            }
+            if (!known) {
+                return number;
+            }
+        }
+        throw new IllegalStateException("Every number is a function");
+    }
+}
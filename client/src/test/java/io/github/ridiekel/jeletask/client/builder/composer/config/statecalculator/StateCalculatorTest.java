@@ -0,0 +1,131 @@
+package io.github.ridiekel.jeletask.client.builder.composer.config.statecalculator;
+
+import io.github.ridiekel.jeletask.client.builder.composer.config.NumberConverter;
+import io.github.ridiekel.jeletask.config.model.json.TDSComponent;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StateCalculatorTest {
+    @Test
+    void namedStatesRoundTrip() {
+        StateCalculator calculator = new OnOffToggleStateCalculator(NumberConverter.UNSIGNED_BYTE, 255, 0, 103);
+
+        for (String name : new String[]{"ON", "OFF", "TOGGLE"}) {
+            int state = calculator.parse(null, name);
+            assertEquals(state, calculator.decode(null, calculator.encode(null, state)));
+            assertSame(name.intern(), calculator.format(null, state));
+        }
+        assertArrayEquals(new byte[]{(byte) 255}, calculator.convertSet(null, "ON"));
+        assertSame("OFF", calculator.convertGet(null, new byte[]{0}));
+    }
+
+    @Test
+    void namedStatesWithDifferentReadAndWriteValues() {
+        StateCalculator calculator = new MotorStateCalculator(NumberConverter.UNSIGNED_BYTE, 1, 2, 3);
+
+        int up = calculator.parse(null, "UP");
+        assertEquals(7, calculator.encode(null, up));
+        assertEquals(up, calculator.decode(null, 1));
+        assertEquals(up, calculator.decode(null, 7));
+        assertEquals("UP", calculator.convertGet(null, 1));
+    }
+
+    @Test
+    void unknownNamedStates() {
+        StateCalculator calculator = new OnOffToggleStateCalculator(NumberConverter.UNSIGNED_BYTE, 255, 0, null);
+
+        assertEquals(StateCalculator.NO_STATE, calculator.decode(null, 17));
+        assertNull(calculator.convertGet(null, 17));
+        assertEquals(StateCalculator.NO_STATE, calculator.parse(null, "TOGGLE"));
+        assertThrows(IllegalArgumentException.class, () -> calculator.convertSet(null, "TOGGLE"));
+    }
+
+    @Test
+    void smallNumbersAreFormattedOnce() {
+        StateCalculator calculator = new DimmerStateCalculator(NumberConverter.UNSIGNED_BYTE);
+
+        for (int raw = 0; raw < 256; raw++) {
+            assertSame(calculator.convertGet(null, raw), calculator.convertGet(null, raw));
+            assertEquals(String.valueOf(raw), calculator.convertGet(null, raw));
+            assertArrayEquals(new byte[]{(byte) raw}, calculator.convertSet(null, String.valueOf(raw)));
+        }
+    }
+
+    @Test
+    void temperatureRoundTrip() {
+        StateCalculator calculator = new TemperatureStateCalculator(NumberConverter.UNSIGNED_SHORT, 10, 273);
+
+        assertEquals(215, calculator.parse(null, "21.5"));
+        assertEquals("21.5", calculator.format(null, 215));
+        assertArrayEquals(new byte[]{0x0b, (byte) 0x81}, calculator.convertSet(null, "21.5"));
+        assertEquals("21.5", calculator.convertGet(null, new byte[]{0x0b, (byte) 0x81}));
+        assertEquals("-273.0", calculator.convertGet(null, 0));
+    }
+
+    @Test
+    void decodedStatesSurviveEncodingForAllValues() {
+        StateCalculator[] calculators = {
+                new TemperatureStateCalculator(NumberConverter.UNSIGNED_SHORT, 10, 273),
+                new TemperatureStateCalculator(NumberConverter.UNSIGNED_BYTE, 2, 40),
+                new LuxStateCalculator(NumberConverter.UNSIGNED_SHORT),
+                new LuxStateCalculator(NumberConverter.UNSIGNED_BYTE),
+                new HumidityStateCalculator(NumberConverter.UNSIGNED_SHORT),
+                new DimmerStateCalculator(NumberConverter.UNSIGNED_BYTE)
+        };
+        for (StateCalculator calculator : calculators) {
+            int values = 1 << (calculator.getNumberConverter().getByteSize() * 8);
+            for (int raw = 0; raw < values; raw++) {
+                int state = calculator.decode(null, raw);
+                if (state == Integer.MAX_VALUE) {
+                    // Lux above the int range is capped, it can not be encoded back
+                    continue;
+                }
+                int encoded = calculator.encode(null, state);
+                assertEquals(state, calculator.decode(null, encoded), calculator.getClass().getSimpleName() + " " + raw);
+                assertEquals(state, calculator.parse(null, calculator.format(null, state)), calculator.getClass().getSimpleName() + " " + raw);
+            }
+        }
+    }
+
+    @Test
+    void writeSetWritesTheSameBytesAsConvertSet() {
+        Map<StateCalculator, List<String>> states = Map.of(
+                new OnOffToggleStateCalculator(NumberConverter.UNSIGNED_BYTE, 255, 0, 103), List.of("ON", "OFF"),
+                new TemperatureStateCalculator(NumberConverter.UNSIGNED_SHORT, 10, 273), List.of("21.5", "-3", "0"),
+                new DimmerStateCalculator(NumberConverter.UNSIGNED_BYTE), List.of("0", "50", "100"));
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        states.forEach((calculator, values) -> {
+            for (String state : values) {
+                buffer.clear();
+                calculator.writeSet(null, state, buffer);
+                assertArrayEquals(calculator.convertSet(null, state), Arrays.copyOf(buffer.array(), buffer.position()), calculator.getClass().getSimpleName() + " " + state);
+            }
+        });
+    }
+
+    @Test
+    void sensorUsesTheCalculatorOfItsType() {
+        StateCalculator calculator = new SensorStateCalculator(
+                new TemperatureStateCalculator(NumberConverter.UNSIGNED_SHORT, 10, 273),
+                new LuxStateCalculator(NumberConverter.UNSIGNED_SHORT),
+                new HumidityStateCalculator(NumberConverter.UNSIGNED_SHORT));
+        TDSComponent temperature = new TDSComponent();
+        temperature.setType("TEMPERATURE");
+        TDSComponent light = new TDSComponent();
+        light.setType("LIGHT");
+
+        assertEquals("21.5", calculator.convertGet(temperature, 2945));
+        assertEquals("9", calculator.convertGet(light, 40));
+        assertArrayEquals(new byte[]{0, 40}, calculator.convertSet(light, "9"));
+    }
+}
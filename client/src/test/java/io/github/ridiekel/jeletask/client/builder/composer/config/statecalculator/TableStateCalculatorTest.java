@@ -0,0 +1,64 @@
+package io.github.ridiekel.jeletask.client.builder.composer.config.statecalculator;
+
+import io.github.ridiekel.jeletask.client.builder.composer.config.NumberConverter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TableStateCalculatorTest {
+    private static StateCalculator[] calculators() {
+        return new StateCalculator[]{
+                new TemperatureStateCalculator(NumberConverter.UNSIGNED_SHORT, 10, 273),
+                new TemperatureStateCalculator(NumberConverter.UNSIGNED_BYTE, 2, 40),
+                new LuxStateCalculator(NumberConverter.UNSIGNED_SHORT),
+                new HumidityStateCalculator(NumberConverter.UNSIGNED_SHORT),
+                new DimmerStateCalculator(NumberConverter.UNSIGNED_BYTE)
+        };
+    }
+
+    @Test
+    void tablesDecodeLikeTheirCalculator() {
+        for (DecodeTable.Encoding encoding : DecodeTable.Encoding.values()) {
+            for (StateCalculator calculator : calculators()) {
+                TableStateCalculator table = new TableStateCalculator(calculator, encoding);
+                int values = 1 << (calculator.getNumberConverter().getByteSize() * 8);
+                for (int raw = 0; raw < values; raw++) {
+                    String message = encoding + " " + calculator.getClass().getSimpleName() + " " + raw;
+                    assertEquals(calculator.decode(null, raw), table.decode(null, raw), message);
+                    assertEquals(calculator.convertGet(null, raw), table.convertGet(null, raw), message);
+                }
+            }
+        }
+    }
+
+    @Test
+    void fullTableFormatsEveryValueOnce() {
+        TableStateCalculator table = new TableStateCalculator(new TemperatureStateCalculator(NumberConverter.UNSIGNED_SHORT, 10, 273), DecodeTable.Encoding.FULL);
+
+        for (int raw = 0; raw < 1 << 16; raw += 97) {
+            assertSame(table.convertGet(null, raw), table.convertGet(null, raw));
+        }
+    }
+
+    @Test
+    void compactTableIsSmallerThanFullTable() {
+        StateCalculator calculator = new TemperatureStateCalculator(NumberConverter.UNSIGNED_SHORT, 10, 273);
+
+        long full = DecodeTable.build(calculator, DecodeTable.Encoding.FULL).getMemoryBytes();
+        long compact = DecodeTable.build(calculator, DecodeTable.Encoding.COMPACT).getMemoryBytes();
+
+        assertEquals(65536 * 8, full);
+        assertEquals(65536 * 2 + 1024 * 4, compact);
+    }
+
+    @Test
+    void encodingIsLeftToTheCalculator() {
+        StateCalculator calculator = new TemperatureStateCalculator(NumberConverter.UNSIGNED_SHORT, 10, 273);
+        TableStateCalculator table = new TableStateCalculator(calculator, DecodeTable.Encoding.COMPACT);
+
+        assertArrayEquals(calculator.convertSet(null, "21.5"), table.convertSet(null, "21.5"));
+        assertEquals(calculator.parse(null, "-3.5"), table.parse(null, "-3.5"));
+    }
+}
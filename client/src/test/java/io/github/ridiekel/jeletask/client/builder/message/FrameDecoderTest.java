@@ -0,0 +1,261 @@
+package io.github.ridiekel.jeletask.client.builder.message;
+
+import io.github.ridiekel.jeletask.client.Allocations;
+import io.github.ridiekel.jeletask.client.builder.composer.MessageHandlerFactory;
+import io.github.ridiekel.jeletask.model.spec.CentralUnitType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrameDecoderTest {
+    /**
+     * Logger responsible for logging and debugging statements.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(FrameDecoderTest.class);
+
+    private static final byte STX = 2;
+    private static final byte ACK = 10;
+
+    private FrameDecoder decoder;
+    private final List<byte[]> frames = new ArrayList<>();
+    private int acknowledges;
+
+    private final FrameDecoder.FrameListener listener = new FrameDecoder.FrameListener() {
+        @Override
+        public void onFrame(byte[] frame, int length) {
+            FrameDecoderTest.this.frames.add(Arrays.copyOf(frame, length));
+        }
+
+        @Override
+        public void onAcknowledge() {
+            FrameDecoderTest.this.acknowledges++;
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        this.decoder = new FrameDecoder(MessageHandlerFactory.getMessageHandler(CentralUnitType.MICROS_PLUS));
+    }
+
+    @Test
+    void frameSplitOverSeveralReads() {
+        byte[] frame = frame(16, 1, 0, 1, 0);
+
+        for (int i = 0; i < frame.length; i++) {
+            this.decode(frame[i]);
+            assertEquals(i == frame.length - 1 ? 1 : 0, this.frames.size());
+        }
+
+        assertArrayEquals(frame, this.frames.get(0));
+    }
+
+    @Test
+    void multipleFramesAndAcknowledgesInOneRead() {
+        byte[] first = frame(16, 1, 0, 1, 0);
+        byte[] second = frame(16, 1, 0, 2, -1);
+        byte[] third = frame(6, 3);
+
+        this.decode(concat(new byte[]{ACK}, first, second, new byte[]{ACK}, third));
+
+        assertEquals(2, this.acknowledges);
+        assertEquals(3, this.frames.size());
+        assertArrayEquals(first, this.frames.get(0));
+        assertArrayEquals(second, this.frames.get(1));
+        assertArrayEquals(third, this.frames.get(2));
+    }
+
+    @Test
+    void resynchronizesAfterWrongChecksum() {
+        byte[] broken = frame(16, 1, 0, 1, 0);
+        broken[broken.length - 1]++;
+        byte[] frame = frame(16, 1, 0, 2, -1);
+
+        this.decode(concat(broken, frame));
+
+        assertEquals(1, this.frames.size());
+        assertArrayEquals(frame, this.frames.get(0));
+    }
+
+    @Test
+    void findsFrameThatStartsInsideDroppedFrame() {
+        byte[] frame = frame(16, 1, 0, 2, -1);
+        // A stray STX with a length that swallows the real frame, the real frame is found when the checksum is wrong
+        byte[] stray = {STX, (byte) (frame.length + 1)};
+        byte[] tail = {0, 0};
+
+        this.decode(concat(stray, frame, tail));
+        this.decode(frame);
+
+        assertEquals(2, this.frames.size());
+        assertArrayEquals(frame, this.frames.get(0));
+        assertArrayEquals(frame, this.frames.get(1));
+    }
+
+    @Test
+    void findsFrameBehindSeveralStrayStx() {
+        byte[] frame = frame(16, 1, 0, 2, -1);
+
+        this.decode(concat(new byte[]{STX, 12, STX, 20}, frame, new byte[30]));
+
+        assertEquals(1, this.frames.size());
+        assertArrayEquals(frame, this.frames.get(0));
+    }
+
+    @Test
+    void resynchronizesAfterTooShortLength() {
+        byte[] frame = frame(6, 3);
+
+        this.decode(concat(new byte[]{STX, 1}, frame));
+
+        assertEquals(1, this.frames.size());
+        assertArrayEquals(frame, this.frames.get(0));
+    }
+
+    @Test
+    void resetDropsIncompleteFrame() {
+        byte[] frame = frame(16, 1, 0, 1, 0);
+
+        this.decode(Arrays.copyOf(frame, 4));
+        this.decoder.reset();
+        this.decode(frame);
+
+        assertEquals(1, this.frames.size());
+        assertArrayEquals(frame, this.frames.get(0));
+    }
+
+    @Test
+    void decodesAFragmentedStream() {
+        List<byte[]> expected = new ArrayList<>();
+        byte[] stream = stream(1000, expected);
+
+        for (ByteBuffer read : fragment(stream, new Random(42))) {
+            this.decoder.decode(read, this.listener);
+        }
+
+        assertEquals(1000, this.acknowledges);
+        assertEquals(expected.size(), this.frames.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), this.frames.get(i));
+        }
+    }
+
+    /**
+     * Not an assertion on the throughput, it depends on the machine. Decoding a fragmented stream must not allocate.
+     */
+    @Test
+    void decodesAFragmentedStreamWithoutAllocating() {
+        byte[] stream = stream(1000, new ArrayList<>());
+        List<ByteBuffer> reads = fragment(stream, new Random(42));
+        int[] counts = new int[2];
+        FrameDecoder.FrameListener counter = new FrameDecoder.FrameListener() {
+            @Override
+            public void onFrame(byte[] frame, int length) {
+                counts[0]++;
+            }
+
+            @Override
+            public void onAcknowledge() {
+                counts[1]++;
+            }
+        };
+        // Warm up
+        for (int i = 0; i < 200; i++) {
+            decodeAll(this.decoder, reads, counter);
+        }
+
+        int rounds = 500;
+        counts[0] = 0;
+        long allocatedBefore = Allocations.getAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            decodeAll(this.decoder, reads, counter);
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = Allocations.getAllocatedBytes() - allocatedBefore;
+
+        assertEquals(rounds * 2000, counts[0]);
+        LOG.info("Decoded {} frames ({} MB in {} reads) in {}ms: {} MB/s, {} bytes allocated", counts[0], (long) stream.length * rounds / (1024 * 1024), (long) reads.size() * rounds,
+                nanos / 1_000_000, (long) stream.length * rounds * 1000 / nanos, allocated);
+        if (Allocations.isSupported()) {
+            assertTrue(allocated < 16 * 1024, allocated + " bytes allocated");
+        }
+    }
+
+    private static void decodeAll(FrameDecoder decoder, List<ByteBuffer> reads, FrameDecoder.FrameListener listener) {
+        for (ByteBuffer read : reads) {
+            decoder.decode(read.rewind(), listener);
+        }
+    }
+
+    /**
+     * @return Events of two sizes and acknowledges, the frames are added to the expected list.
+     */
+    private static byte[] stream(int count, List<byte[]> expected) {
+        List<byte[]> parts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            byte[] event = frame(16, 1, 0, i & 0x7f, i % 3 == 0 ? -1 : 0);
+            byte[] sensor = frame(16, 20, 0, i & 0x7f, 0, 0x0b, 0x81, 0, 0, 0);
+            expected.add(event);
+            expected.add(sensor);
+            parts.add(event);
+            parts.add(new byte[]{ACK});
+            parts.add(sensor);
+        }
+        return concat(parts.toArray(new byte[0][]));
+    }
+
+    /**
+     * @return The stream cut in reads of 1 to 64 bytes, the way a socket can return it.
+     */
+    private static List<ByteBuffer> fragment(byte[] stream, Random random) {
+        List<ByteBuffer> reads = new ArrayList<>();
+        for (int position = 0; position < stream.length; ) {
+            int length = Math.min(stream.length - position, 1 + random.nextInt(64));
+            reads.add(ByteBuffer.wrap(Arrays.copyOfRange(stream, position, position + length)));
+            position += length;
+        }
+        return reads;
+    }
+
+    private void decode(byte... bytes) {
+        this.decoder.decode(ByteBuffer.wrap(bytes), this.listener);
+    }
+
+    /**
+     * @return STX, length, command, parameters and checksum.
+     */
+    private static byte[] frame(int command, int... parameters) {
+        byte[] frame = new byte[parameters.length + 4];
+        frame[0] = STX;
+        frame[1] = (byte) (parameters.length + 3);
+        frame[2] = (byte) command;
+        for (int i = 0; i < parameters.length; i++) {
+            frame[i + 3] = (byte) parameters[i];
+        }
+        byte checksum = 0;
+        for (int i = 0; i < frame.length - 1; i++) {
+            checksum += frame[i];
+        }
+        frame[frame.length - 1] = checksum;
+        return frame;
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteBuffer buffer = ByteBuffer.allocate(Arrays.stream(parts).mapToInt(p -> p.length).sum());
+        for (byte[] part : parts) {
+            buffer.put(part);
+        }
+        return buffer.array();
+    }
+}
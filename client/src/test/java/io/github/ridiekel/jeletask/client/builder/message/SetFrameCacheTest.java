@@ -0,0 +1,64 @@
+package io.github.ridiekel.jeletask.client.builder.message;
+
+import io.github.ridiekel.jeletask.model.spec.Function;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class SetFrameCacheTest {
+    private final AtomicLong configurationVersion = new AtomicLong();
+    private final AtomicInteger composed = new AtomicInteger();
+    private final SetFrameCache cache = new SetFrameCache(2, this.configurationVersion::get);
+
+    @Test
+    void discreteFramesAreReused() {
+        byte[] frame = this.get(Function.RELAY, 1, "ON");
+
+        assertSame(frame, this.get(Function.RELAY, 1, "ON"));
+        assertEquals(1, this.composed.get());
+    }
+
+    @Test
+    void discreteFramesAreBoundedPerComponent() {
+        for (int i = 0; i < 100; i++) {
+            this.get(Function.RELAY, 1, "STATE" + i);
+        }
+
+        assertEquals(8, this.cache.size());
+        this.get(Function.RELAY, 1, "STATE99");
+        assertEquals(101, this.composed.get());
+    }
+
+    @Test
+    void continuousFramesEvictTheLeastRecentlyUsed() {
+        byte[] first = this.get(Function.DIMMER, 1, "10");
+        this.get(Function.DIMMER, 1, "20");
+        this.get(Function.DIMMER, 1, "10");
+        this.get(Function.DIMMER, 1, "30");
+
+        assertEquals(2, this.cache.size());
+        assertSame(first, this.get(Function.DIMMER, 1, "10"));
+        assertEquals(3, this.composed.get());
+    }
+
+    @Test
+    void framesAreDroppedWhenTheConfigurationChanges() {
+        byte[] frame = this.get(Function.RELAY, 1, "ON");
+        this.get(Function.DIMMER, 1, "10");
+
+        this.configurationVersion.incrementAndGet();
+
+        byte[] recomposed = this.get(Function.RELAY, 1, "ON");
+        assertEquals(1, this.cache.size());
+        assertEquals(3, this.composed.get());
+        assertEquals(frame[0] + 2, recomposed[0]);
+    }
+
+    private byte[] get(Function function, int number, String state) {
+        return this.cache.get(function, number, state, () -> new byte[]{(byte) this.composed.incrementAndGet()});
+    }
+}
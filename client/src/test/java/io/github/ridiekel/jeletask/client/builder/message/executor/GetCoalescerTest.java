@@ -0,0 +1,156 @@
+package io.github.ridiekel.jeletask.client.builder.message.executor;
+
+import io.github.ridiekel.jeletask.client.ComponentState;
+import io.github.ridiekel.jeletask.client.metrics.ClientMetrics;
+import io.github.ridiekel.jeletask.model.spec.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GetCoalescerTest {
+    private static final long WINDOW_MICROS = 50_000;
+    private static final int MAX_NUMBERS_PER_FRAME = 125;
+
+    private final AtomicReference<ScheduledExecutorService> scheduler = new AtomicReference<>(Executors.newSingleThreadScheduledExecutor());
+    private final Map<Function, List<int[]>> sent = new ConcurrentHashMap<>();
+    private final ClientMetrics metrics = new ClientMetrics(() -> 0, () -> 0);
+    private final GetCoalescer coalescer = new GetCoalescer(WINDOW_MICROS, MAX_NUMBERS_PER_FRAME, this.scheduler::get, this::send, this.metrics);
+
+    @AfterEach
+    void tearDown() {
+        this.scheduler.get().shutdownNow();
+    }
+
+    @Test
+    void concurrentGetsAreSentAsOneGroupGet() throws Exception {
+        int[] numbers = {3, 1, 2, 1, 3, 3};
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<ComponentState>> waiters = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int number : numbers) {
+            CompletableFuture<ComponentState> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    this.coalescer.add(Function.RELAY, number, waiter);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        CompletableFuture.allOf(waiters.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, this.sent.get(Function.RELAY).size());
+        assertArrayEquals(new int[]{1, 2, 3}, this.sent.get(Function.RELAY).get(0));
+        assertEquals(6, this.metrics.getCoalescedGets());
+        assertEquals(5, this.metrics.getSavedGetRequests());
+    }
+
+    @Test
+    void functionsAreBatchedSeparately() throws Exception {
+        CompletableFuture<ComponentState> relay = new CompletableFuture<>();
+        CompletableFuture<ComponentState> dimmer = new CompletableFuture<>();
+
+        this.coalescer.add(Function.RELAY, 1, relay);
+        this.coalescer.add(Function.DIMMER, 1, dimmer);
+
+        CompletableFuture.allOf(relay, dimmer).get(5, TimeUnit.SECONDS);
+        assertEquals(1, this.sent.get(Function.RELAY).size());
+        assertEquals(1, this.sent.get(Function.DIMMER).size());
+    }
+
+    @Test
+    void waitersFailWhenTheGroupGetFails() {
+        GetCoalescer failing = new GetCoalescer(WINDOW_MICROS, MAX_NUMBERS_PER_FRAME, this.scheduler::get, (function, numbers, waiters) -> {
+            throw new IllegalStateException("Not connected");
+        }, this.metrics);
+        CompletableFuture<ComponentState> waiter = new CompletableFuture<>();
+
+        failing.add(Function.RELAY, 1, waiter);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    void batchIsDroppedWhenTheFlushCanNotBeScheduled() throws Exception {
+        this.scheduler.get().shutdown();
+        CompletableFuture<ComponentState> rejected = new CompletableFuture<>();
+
+        this.coalescer.add(Function.RELAY, 1, rejected);
+
+        assertTrue(rejected.isCompletedExceptionally());
+        ExecutionException e = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+
+        this.scheduler.set(Executors.newSingleThreadScheduledExecutor());
+        CompletableFuture<ComponentState> next = new CompletableFuture<>();
+        this.coalescer.add(Function.RELAY, 2, next);
+
+        next.get(5, TimeUnit.SECONDS);
+        assertArrayEquals(new int[]{2}, this.sent.get(Function.RELAY).get(0));
+    }
+
+    @Test
+    void metricsCountTheFramesOfTheGroupGet() throws Exception {
+        GetCoalescer coalescer = new GetCoalescer(WINDOW_MICROS, 2, this.scheduler::get, this::send, this.metrics);
+        List<CompletableFuture<ComponentState>> waiters = new ArrayList<>();
+        for (int number = 1; number <= 5; number++) {
+            CompletableFuture<ComponentState> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            coalescer.add(Function.RELAY, number, waiter);
+        }
+
+        waiters.get(0).get(5, TimeUnit.SECONDS);
+
+        assertEquals(5, this.metrics.getCoalescedGets());
+        assertEquals(2, this.metrics.getSavedGetRequests());
+    }
+
+    @Test
+    void negativeNumberFailsWithoutBlockingTheFunction() throws Exception {
+        CompletableFuture<ComponentState> invalid = new CompletableFuture<>();
+
+        this.coalescer.add(Function.RELAY, -1, invalid);
+
+        ExecutionException e = assertThrows(ExecutionException.class, invalid::get);
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+
+        CompletableFuture<ComponentState> next = new CompletableFuture<>();
+        this.coalescer.add(Function.RELAY, 1, next);
+
+        next.get(5, TimeUnit.SECONDS);
+        assertArrayEquals(new int[]{1}, this.sent.get(Function.RELAY).get(0));
+    }
+
+    private void send(Function function, int[] numbers, List<CompletableFuture<ComponentState>> waiters) {
+        this.sent.computeIfAbsent(function, f -> new ArrayList<>()).add(numbers);
+        waiters.forEach(w -> w.complete(new ComponentState(function, 0, "ON")));
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.ridiekel.jeletask.client.builder.message.executor;
+
+import io.github.ridiekel.jeletask.client.builder.message.messages.AcknowledgeException;
+import io.github.ridiekel.jeletask.client.builder.message.messages.impl.KeepAliveMessage;
+import io.github.ridiekel.jeletask.config.model.json.JsonCentralUnit;
+import io.github.ridiekel.jeletask.model.spec.CentralUnitType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InFlightQueueTest {
+    private static final long ACKNOWLEDGE_TIMEOUT_MILLIS = 100;
+
+    private JsonCentralUnit centralUnit;
+    private final List<Integer> sent = new ArrayList<>();
+    private final AtomicInteger timeouts = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        this.centralUnit = new JsonCentralUnit("localhost", 1);
+        this.centralUnit.setType(CentralUnitType.MICROS_PLUS);
+    }
+
+    @Test
+    void acknowledgesAreMatchedInOrder() {
+        InFlightQueue queue = this.queue(3);
+        CompletableFuture<Void> first = this.submit(queue, 1);
+        CompletableFuture<Void> second = this.submit(queue, 2);
+        CompletableFuture<Void> third = this.submit(queue, 3);
+
+        queue.acknowledge();
+        assertTrue(first.isDone());
+        assertFalse(second.isDone());
+        assertFalse(third.isDone());
+
+        queue.acknowledge();
+        queue.acknowledge();
+        assertTrue(second.isDone());
+        assertTrue(third.isDone());
+        assertEquals(List.of(1, 2, 3), this.sent);
+    }
+
+    @Test
+    void messagesWaitForAFreeSlot() {
+        InFlightQueue queue = this.queue(1);
+        CompletableFuture<Void> first = this.submit(queue, 1);
+        CompletableFuture<Void> second = this.submit(queue, 2);
+
+        assertEquals(List.of(1), this.sent);
+        assertEquals(1, queue.getWaitingCount());
+
+        queue.acknowledge();
+        assertTrue(first.isDone());
+        assertEquals(List.of(1, 2), this.sent);
+        assertFalse(second.isDone());
+
+        queue.acknowledge();
+        assertTrue(second.isDone());
+    }
+
+    @Test
+    void lateAcknowledgeIsNotMatchedToTheNextMessage() throws Exception {
+        InFlightQueue queue = this.queue(2);
+        CompletableFuture<Void> first = this.submit(queue, 1);
+        CompletableFuture<Void> second = this.submit(queue, 2);
+
+        assertAcknowledgeFailure(first);
+        assertAcknowledgeFailure(second);
+        assertEquals(1, this.timeouts.get());
+        assertTrue(queue.isPoisoned());
+
+        CompletableFuture<Void> third = this.submit(queue, 3);
+        queue.acknowledge();
+        assertAcknowledgeFailure(third);
+        assertEquals(List.of(1, 2), this.sent);
+
+        // The connection was reset
+        queue.failAll(new IllegalStateException("closed"));
+        assertFalse(queue.isPoisoned());
+        CompletableFuture<Void> fourth = this.submit(queue, 4);
+        assertFalse(fourth.isDone());
+        queue.acknowledge();
+        fourth.get(1, TimeUnit.SECONDS);
+        assertEquals(1, this.timeouts.get());
+    }
+
+    @Test
+    void acknowledgedMessageDoesNotTimeOut() throws Exception {
+        InFlightQueue queue = this.queue(1);
+        CompletableFuture<Void> first = this.submit(queue, 1);
+        queue.acknowledge();
+
+        Thread.sleep(ACKNOWLEDGE_TIMEOUT_MILLIS * 2);
+
+        first.get(1, TimeUnit.SECONDS);
+        assertEquals(0, this.timeouts.get());
+        assertFalse(queue.isPoisoned());
+    }
+
+    private InFlightQueue queue(int pipelineDepth) {
+        return new InFlightQueue(pipelineDepth, ACKNOWLEDGE_TIMEOUT_MILLIS, this.timeouts::incrementAndGet);
+    }
+
+    private CompletableFuture<Void> submit(InFlightQueue queue, int id) {
+        return queue.submit(new KeepAliveMessage(this.centralUnit), () -> this.sent.add(id));
+    }
+
+    private static void assertAcknowledgeFailure(CompletableFuture<Void> future) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(AcknowledgeException.class, e.getCause());
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.ridiekel.jeletask.client.builder.message.messages.impl;
+
+import io.github.ridiekel.jeletask.client.builder.composer.MessageHandler;
+import io.github.ridiekel.jeletask.client.builder.composer.MessageHandlerFactory;
+import io.github.ridiekel.jeletask.client.builder.composer.MessageHandlerSupport;
+import io.github.ridiekel.jeletask.config.model.json.JsonCentralUnit;
+import io.github.ridiekel.jeletask.model.spec.CentralUnitType;
+import io.github.ridiekel.jeletask.model.spec.Command;
+import io.github.ridiekel.jeletask.model.spec.Function;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GroupGetMessageTest {
+    private final JsonCentralUnit centralUnit = centralUnit(CentralUnitType.MICROS_PLUS);
+
+    @Test
+    void maxOutputsFitInOneFrame() {
+        assertEquals(125, maxOutputs(this.centralUnit));
+
+        List<GroupGetMessage> messages = GroupGetMessage.chunked(this.centralUnit, Function.RELAY, numbers(1, 125));
+
+        assertEquals(1, messages.size());
+        assertEquals(MessageHandlerSupport.MAX_FRAME_LENGTH, compose(messages.get(0)).length - 1);
+    }
+
+    @Test
+    void oneMoreOutputNeedsASecondFrame() {
+        List<GroupGetMessage> messages = GroupGetMessage.chunked(this.centralUnit, Function.RELAY, numbers(1, 126));
+
+        assertEquals(2, messages.size());
+        assertArrayEquals(numbers(1, 125), messages.get(0).getNumbers());
+        assertArrayEquals(new int[]{126}, messages.get(1).getNumbers());
+    }
+
+    @Test
+    void everyFrameFits() {
+        int max = maxOutputs(this.centralUnit);
+        for (int count : new int[]{1, max - 1, max, max + 1, 2 * max, 2 * max + 1, 1000}) {
+            List<GroupGetMessage> messages = GroupGetMessage.chunked(this.centralUnit, Function.RELAY, numbers(1, count));
+
+            assertEquals((count + max - 1) / max, messages.size(), String.valueOf(count));
+            assertEquals(count, messages.stream().mapToInt(m -> m.getNumbers().length).sum());
+            for (GroupGetMessage message : messages) {
+                byte[] frame = compose(message);
+                assertTrue(frame.length - 1 <= MessageHandlerSupport.MAX_FRAME_LENGTH, count + ": " + frame.length);
+                assertEquals(frame.length - 1, frame[1] & 0xff);
+            }
+        }
+    }
+
+    @Test
+    void composeRejectsMoreThanOneFrame() {
+        GroupGetMessage message = new GroupGetMessage(this.centralUnit, Function.RELAY, numbers(1, 126));
+
+        assertThrows(IllegalArgumentException.class, () -> compose(message));
+    }
+
+    private static byte[] compose(GroupGetMessage message) {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        message.compose(buffer);
+        byte[] frame = new byte[buffer.position()];
+        buffer.flip().get(frame);
+        return frame;
+    }
+
+    private static int maxOutputs(JsonCentralUnit centralUnit) {
+        MessageHandler messageHandler = MessageHandlerFactory.getMessageHandler(centralUnit.getCentralUnitType());
+        return messageHandler.getMaxOutputsPerFrame(Command.GROUPGET);
+    }
+
+    private static int[] numbers(int from, int to) {
+        return IntStream.rangeClosed(from, to).toArray();
+    }
+
+    private static JsonCentralUnit centralUnit(CentralUnitType type) {
+        JsonCentralUnit centralUnit = new JsonCentralUnit("localhost", 55957);
+        centralUnit.setType(type);
+        return centralUnit;
+    }
+}
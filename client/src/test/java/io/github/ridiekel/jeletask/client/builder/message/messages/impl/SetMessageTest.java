@@ -0,0 +1,91 @@
+package io.github.ridiekel.jeletask.client.builder.message.messages.impl;
+
+import io.github.ridiekel.jeletask.client.Allocations;
+import io.github.ridiekel.jeletask.client.builder.composer.MessageHandlerFactory;
+import io.github.ridiekel.jeletask.config.model.json.JsonCentralUnit;
+import io.github.ridiekel.jeletask.config.model.json.TDSComponent;
+import io.github.ridiekel.jeletask.model.spec.CentralUnitType;
+import io.github.ridiekel.jeletask.model.spec.Command;
+import io.github.ridiekel.jeletask.model.spec.Function;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SetMessageTest {
+    /**
+     * Logger responsible for logging and debugging statements.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(SetMessageTest.class);
+
+    @Test
+    void composesTheSameFrameAsThePayload() {
+        for (CentralUnitType type : new CentralUnitType[]{CentralUnitType.MICROS, CentralUnitType.MICROS_PLUS}) {
+            for (SetMessage message : messages(centralUnit(type))) {
+                byte[] expected = MessageHandlerFactory.getMessageHandler(type).compose(Command.SET, message.getPayload());
+
+                assertArrayEquals(expected, message.toByteArray(), type + " " + message.getId());
+            }
+        }
+    }
+
+    /**
+     * Not an assertion on the time, it depends on the machine. The frames are composed into a buffer of the caller, which must not allocate anything.
+     */
+    @Test
+    void composesWithoutAllocating() {
+        List<SetMessage> messages = messages(centralUnit(CentralUnitType.MICROS_PLUS));
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        // Warm up
+        for (int i = 0; i < 100_000; i++) {
+            composeAll(messages, buffer);
+        }
+
+        int rounds = 1_000_000;
+        long allocatedBefore = Allocations.getAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            composeAll(messages, buffer);
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = Allocations.getAllocatedBytes() - allocatedBefore;
+
+        long frames = (long) rounds * messages.size();
+        LOG.info("Composed {} set frames in {}ms: {} ns/frame, {} bytes allocated", frames, nanos / 1_000_000, nanos / frames, allocated);
+        if (Allocations.isSupported()) {
+            assertTrue(allocated < 16 * 1024, allocated + " bytes allocated");
+        }
+    }
+
+    private static void composeAll(List<SetMessage> messages, ByteBuffer buffer) {
+        for (SetMessage message : messages) {
+            buffer.clear();
+            message.compose(buffer);
+        }
+    }
+
+    private static List<SetMessage> messages(JsonCentralUnit centralUnit) {
+        return List.of(
+                new SetMessage(centralUnit, Function.RELAY, 1, "ON"),
+                new SetMessage(centralUnit, Function.RELAY, 300, "OFF"),
+                new SetMessage(centralUnit, Function.DIMMER, 2, "50"),
+                new SetMessage(centralUnit, Function.DIMMER, 2, "100"),
+                new SetMessage(centralUnit, Function.LOCMOOD, 3, "ON"));
+    }
+
+    private static JsonCentralUnit centralUnit(CentralUnitType type) {
+        JsonCentralUnit centralUnit = new JsonCentralUnit("localhost", 55957);
+        centralUnit.setType(type);
+        centralUnit.setComponentsTypes(Map.of(
+                Function.RELAY, List.of(new TDSComponent(Function.RELAY, null, 1), new TDSComponent(Function.RELAY, null, 300)),
+                Function.DIMMER, List.of(new TDSComponent(Function.DIMMER, null, 2)),
+                Function.LOCMOOD, List.of(new TDSComponent(Function.LOCMOOD, null, 3))));
+        return centralUnit;
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.ridiekel.jeletask.client.builder.message.strategy;
+
+import io.github.ridiekel.jeletask.client.TeletaskClientImpl;
+import io.github.ridiekel.jeletask.client.TeletaskClientOptions;
+import io.github.ridiekel.jeletask.config.model.json.JsonCentralUnit;
+import io.github.ridiekel.jeletask.config.model.json.TDSComponent;
+import io.github.ridiekel.jeletask.model.spec.CentralUnitType;
+import io.github.ridiekel.jeletask.model.spec.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class GetSchedulerTest {
+    private ServerSocket serverSocket;
+    private TeletaskClientImpl client;
+
+    /**
+     * A central unit that acknowledges every message, but never sends an event.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        this.serverSocket = new ServerSocket(0);
+        Thread server = new Thread(() -> {
+            try (Socket socket = this.serverSocket.accept()) {
+                InputStream in = socket.getInputStream();
+                OutputStream out = socket.getOutputStream();
+                int b;
+                while ((b = in.read()) >= 0) {
+                    if (b == 2) {
+                        in.readNBytes(in.read() - 1);
+                        out.write(10);
+                        out.flush();
+                    }
+                }
+            } catch (IOException e) {
+                // The test is done
+            }
+        }, "silent-central-unit");
+        server.setDaemon(true);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (this.client != null) {
+            this.client.stop();
+        }
+        this.serverSocket.close();
+    }
+
+    @Test
+    void readyWhenEveryComponentWasGivenUpOn() throws Exception {
+        JsonCentralUnit centralUnit = new JsonCentralUnit("localhost", this.serverSocket.getLocalPort());
+        centralUnit.setType(CentralUnitType.MICROS);
+        Map<Function, List<TDSComponent>> components = new EnumMap<>(Function.class);
+        List<TDSComponent> relays = new ArrayList<>();
+        for (int number = 1; number <= 3; number++) {
+            relays.add(new TDSComponent(Function.RELAY, null, number));
+        }
+        components.put(Function.RELAY, relays);
+        centralUnit.setComponentsTypes(components);
+
+        TeletaskClientOptions options = new TeletaskClientOptions();
+        options.setEventTimeoutMillis(100);
+        options.setMaxGetAttempts(1);
+        this.client = new TeletaskClientImpl(centralUnit, options);
+
+        this.client.startAsync().get(20, TimeUnit.SECONDS);
+
+        assertEquals(List.of(1, 2, 3), this.client.getMetrics().getGetProgress(Function.RELAY).getFailed());
+        assertNull(centralUnit.getComponent(Function.RELAY, 1).getState());
+    }
+}
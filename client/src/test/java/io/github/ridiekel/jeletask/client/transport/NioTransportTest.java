@@ -0,0 +1,34 @@
+package io.github.ridiekel.jeletask.client.transport;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class NioTransportTest {
+    @Test
+    void writeFailsWhenCentralUnitStopsReading() throws Exception {
+        try (ServerSocket server = new ServerSocket(0)) {
+            NioTransport transport = new NioTransport();
+            transport.connect("localhost", server.getLocalPort());
+            try (Socket ignored = server.accept()) {
+                byte[] message = new byte[64 * 1024];
+                assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+                    assertThrows(SocketTimeoutException.class, () -> {
+                        while (true) {
+                            transport.write(new ByteBuffer[]{ByteBuffer.wrap(message)});
+                        }
+                    });
+                });
+            } finally {
+                transport.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package io.github.ridiekel.jeletask.client.transport;
+
+import io.github.ridiekel.jeletask.client.Allocations;
+import io.github.ridiekel.jeletask.client.metrics.WriteMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboundQueueTest {
+    /**
+     * Logger responsible for logging and debugging statements.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(OutboundQueueTest.class);
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private final RecordingTransport transport = new RecordingTransport();
+    private final WriteMetrics metrics = new WriteMetrics();
+
+    @AfterEach
+    void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    void writesTheFramesInOrderWithoutSplittingThem() throws Exception {
+        OutboundQueue queue = new OutboundQueue(() -> this.transport, this.executor, 10, 0, this.metrics);
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+
+        CountDownLatch paused = this.pause();
+        for (int i = 0; i < 5; i++) {
+            byte[] frame = {(byte) i, (byte) i, (byte) i, (byte) i};
+            expected.write(frame);
+            queue.add(dst -> dst.put(frame));
+        }
+        paused.countDown();
+
+        await("written").atMost(5, TimeUnit.SECONDS).until(() -> this.metrics.getFrames() == 5);
+        assertArrayEquals(expected.toByteArray(), this.transport.getBytes());
+        assertEquals(List.of(8, 8, 4), this.transport.getWrites());
+    }
+
+    @Test
+    void growsForAFrameLargerThanTheBuffer() {
+        OutboundQueue queue = new OutboundQueue(() -> this.transport, this.executor, 16, 0, this.metrics);
+        byte[] frame = new byte[3000];
+        frame[2999] = 42;
+
+        queue.add(dst -> dst.put(frame));
+
+        await("written").atMost(5, TimeUnit.SECONDS).until(() -> this.metrics.getFrames() == 1);
+        assertArrayEquals(frame, this.transport.getBytes());
+    }
+
+    @Test
+    void aFrameThatFailsToComposeIsNotWritten() {
+        OutboundQueue queue = new OutboundQueue(() -> this.transport, this.executor, 1024, 0, this.metrics);
+
+        CountDownLatch paused = this.pause();
+        queue.add(dst -> dst.put((byte) 1));
+        assertThrows(IllegalArgumentException.class, () -> queue.add(dst -> {
+            dst.put((byte) 2);
+            throw new IllegalArgumentException("Too long");
+        }));
+        queue.add(dst -> dst.put((byte) 3));
+        paused.countDown();
+
+        await("written").atMost(5, TimeUnit.SECONDS).until(() -> this.metrics.getFrames() == 2);
+        assertArrayEquals(new byte[]{1, 3}, this.transport.getBytes());
+    }
+
+    /**
+     * Not an assertion on the time, it depends on the machine.
+     * Once both buffers are large enough, adding a frame only composes it into the buffer, which must not allocate anything.
+     */
+    @Test
+    void addsWithoutAllocating() {
+        OutboundQueue queue = new OutboundQueue(() -> this.transport, this.executor, 4096, 0, this.metrics);
+        this.transport.record = false;
+        List<OutboundQueue.FrameWriter> frames = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            byte[] frame = {2, 8, 7, 1, 0, (byte) i, (byte) 255, (byte) (i + 17)};
+            frames.add(dst -> dst.put(frame));
+        }
+        // Warm up, both buffers the queue swaps between grow to fit all frames
+        for (int i = 0; i < 10; i++) {
+            this.addAll(queue, frames, this.pause());
+        }
+
+        int rounds = 50;
+        long allocated = 0;
+        long nanos = 0;
+        for (int i = 0; i < rounds; i++) {
+            CountDownLatch paused = this.pause();
+            long expected = this.metrics.getFrames() + frames.size();
+            long allocatedBefore = Allocations.getAllocatedBytes();
+            long start = System.nanoTime();
+            for (OutboundQueue.FrameWriter frame : frames) {
+                queue.add(frame);
+            }
+            nanos += System.nanoTime() - start;
+            allocated += Allocations.getAllocatedBytes() - allocatedBefore;
+            this.drain(paused, expected);
+        }
+
+        long added = (long) rounds * frames.size();
+        LOG.info("Added {} frames in {}ms: {} ns/frame, {} bytes allocated, {} frames per write", added, nanos / 1_000_000, nanos / added, allocated, this.metrics.getFramesPerWrite());
+        if (Allocations.isSupported()) {
+            // Reading the counter and scheduling the drain of a round allocate a little, not the frames.
+            assertTrue(allocated < added, allocated + " bytes allocated");
+        }
+    }
+
+    private void addAll(OutboundQueue queue, List<OutboundQueue.FrameWriter> frames, CountDownLatch paused) {
+        long expected = this.metrics.getFrames() + frames.size();
+        frames.forEach(queue::add);
+        this.drain(paused, expected);
+    }
+
+    private void drain(CountDownLatch paused, long frames) {
+        paused.countDown();
+        await("written").atMost(5, TimeUnit.SECONDS).until(() -> this.metrics.getFrames() == frames);
+    }
+
+    /**
+     * Keeps the writer busy, so the frames that are added until the latch is released are written at once.
+     */
+    private CountDownLatch pause() {
+        CountDownLatch paused = new CountDownLatch(1);
+        this.executor.execute(() -> {
+            try {
+                paused.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        return paused;
+    }
+
+    private static class RecordingTransport implements Transport {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final List<Integer> writes = new ArrayList<>();
+        private volatile boolean record = true;
+
+        @Override
+        public void connect(String host, int port) {
+        }
+
+        @Override
+        public ByteBuffer read(long timeoutMillis) {
+            return null;
+        }
+
+        @Override
+        public void write(byte[] message) {
+            this.write(new ByteBuffer[]{ByteBuffer.wrap(message)});
+        }
+
+        @Override
+        public synchronized void write(ByteBuffer[] messages) {
+            int length = 0;
+            for (ByteBuffer message : messages) {
+                length += message.remaining();
+                if (this.record) {
+                    this.bytes.write(message.array(), message.arrayOffset() + message.position(), message.remaining());
+                }
+                message.position(message.limit());
+            }
+            if (this.record) {
+                this.writes.add(length);
+            }
+        }
+
+        @Override
+        public boolean isConnected() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        synchronized byte[] getBytes() {
+            return this.bytes.toByteArray();
+        }
+
+        synchronized List<Integer> getWrites() {
+            return new ArrayList<>(this.writes);
+        }
+    }
+}
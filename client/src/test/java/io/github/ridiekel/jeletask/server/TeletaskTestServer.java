@@ -4,15 +4,19 @@ import io.github.ridiekel.jeletask.TeletaskReceiver;
 import io.github.ridiekel.jeletask.client.TeletaskClientImpl;
 import io.github.ridiekel.jeletask.client.builder.ByteUtilities;
 import io.github.ridiekel.jeletask.client.builder.composer.MessageHandler;
+import io.github.ridiekel.jeletask.client.builder.message.FrameDecoder;
 import io.github.ridiekel.jeletask.client.builder.message.MessageUtilities;
 import io.github.ridiekel.jeletask.client.builder.message.messages.MessageSupport;
 import io.github.ridiekel.jeletask.client.builder.message.messages.impl.EventMessage;
+import io.github.ridiekel.jeletask.client.builder.message.messages.impl.SetMessage;
+import io.github.ridiekel.jeletask.client.transport.SocketTransport;
+import io.github.ridiekel.jeletask.client.transport.Transport;
 import io.github.ridiekel.jeletask.model.spec.CentralUnit;
+import io.github.ridiekel.jeletask.model.spec.ComponentSpec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.ServerSocket;
 import java.net.Socket;
@@ -30,7 +34,8 @@ public class TeletaskTestServer implements Runnable, TeletaskReceiver {
     private final TeletaskClientImpl client;
     private ServerSocket server;
     private Socket socket;
-    private InputStream inputStream;
+    private Transport transport;
+    private FrameDecoder frameDecoder;
     private OutputStream outputStream;
     private final Timer timer = new Timer();
 
@@ -44,7 +49,8 @@ public class TeletaskTestServer implements Runnable, TeletaskReceiver {
         try {
             this.server = new ServerSocket(this.getPort());
             this.socket = this.server.accept();
-            this.inputStream = this.socket.getInputStream();
+            this.transport = new SocketTransport(this.socket);
+            this.frameDecoder = new FrameDecoder(this.getMessageHandler());
             this.outputStream = this.socket.getOutputStream();
             this.timer.schedule(new TimerTask() {
                 @Override
@@ -54,7 +60,7 @@ public class TeletaskTestServer implements Runnable, TeletaskReceiver {
                         for (MessageSupport message : messages) {
                             LOG.debug("Processing message: {}", message.toString());
                             TeletaskTestServer.this.outputStream.write(new byte[]{10});
-                            List<EventMessage> eventMessages = message.respond(TeletaskTestServer.this.getConfig(), TeletaskTestServer.this.getMessageHandler());
+                            List<EventMessage> eventMessages = TeletaskTestServer.this.respond(message);
                             if (eventMessages != null) {
                                 for (EventMessage eventMessage : eventMessages) {
                                     LOG.debug("Sending bytes to client: {}", ByteUtilities.bytesToHex(eventMessage.getRawBytes()));
@@ -74,14 +80,25 @@ public class TeletaskTestServer implements Runnable, TeletaskReceiver {
         }
     }
 
+    /**
+     * Like a central unit, a toggle is answered with the new state.
+     */
+    private List<EventMessage> respond(MessageSupport message) {
+        if (message instanceof SetMessage && "TOGGLE".equals(((SetMessage) message).getState())) {
+            SetMessage set = (SetMessage) message;
+            ComponentSpec component = this.getConfig().getComponent(set.getFunction(), set.getNumber());
+            String toggled = "ON".equals(component.getState()) ? "OFF" : "ON";
+            return this.getMessageHandler().createResponseEventMessage(this.getConfig(), set.getFunction(), new MessageHandler.OutputState(set.getNumber(), toggled));
+        }
+        return message.respond(this.getConfig(), this.getMessageHandler());
+    }
+
     public void stop() {
         LOG.debug("Stopping test server...");
         try {
             this.timer.purge();
             this.timer.cancel();
-            this.inputStream.close();
-            this.outputStream.close();
-            this.socket.close();
+            this.transport.close();
             this.server.close();
         } catch (IOException e) {
             LOG.error("Exception ({}) caught in stop: {}", e.getClass().getName(), e.getMessage(), e);
@@ -98,8 +115,13 @@ public class TeletaskTestServer implements Runnable, TeletaskReceiver {
     }
 
     @Override
-    public InputStream getInputStream() {
-        return this.inputStream;
+    public Transport getTransport() {
+        return this.transport;
+    }
+
+    @Override
+    public FrameDecoder getFrameDecoder() {
+        return this.frameDecoder;
     }
 
     @Override
@@ -1,12 +1,16 @@
 package io.github.ridiekel.jeletask.config.model.json;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import io.github.ridiekel.jeletask.model.spec.CentralUnit;
 import io.github.ridiekel.jeletask.model.spec.CentralUnitType;
+import io.github.ridiekel.jeletask.model.spec.ComponentIndex;
 import io.github.ridiekel.jeletask.model.spec.ComponentSpec;
 import io.github.ridiekel.jeletask.model.spec.Function;
+import io.github.ridiekel.jeletask.model.spec.state.InterningStateCodec;
+import io.github.ridiekel.jeletask.model.spec.state.StateCodec;
+import io.github.ridiekel.jeletask.model.spec.state.StateStore;
+import io.github.ridiekel.jeletask.model.spec.state.StateStoreType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,17 +36,24 @@ public class JsonCentralUnit implements CentralUnit {
     private int port;
     private Map<Function, List<TDSComponent>> componentsTypes;
     private List<TDSComponent> allComponents;
+    private volatile ComponentIndex<TDSComponent> componentIndex;
+    private volatile StateStore stateStore;
+    private StateStoreType stateStoreType = StateStoreType.HEAP;
+    private final StateCodec stateCodec = new InterningStateCodec();
     private CentralUnitType type;
+    private volatile long configurationVersion;
 
     /**
      * Default constructor.
      */
     private JsonCentralUnit() {
+        this.componentIndex = this.buildComponentIndex();
     }
 
     public JsonCentralUnit(String host, int port) {
         this.host = host;
         this.port = port;
+        this.componentIndex = this.buildComponentIndex();
     }
 
     @Override
@@ -70,6 +81,9 @@ public class JsonCentralUnit implements CentralUnit {
 
     public void setComponentsTypes(Map<Function, List<TDSComponent>> componentsTypes) {
         this.componentsTypes = componentsTypes;
+        this.allComponents = null;
+        this.componentIndex = this.buildComponentIndex();
+        this.configurationVersion++;
     }
 
     @Override
@@ -77,6 +91,12 @@ public class JsonCentralUnit implements CentralUnit {
         return type;
     }
 
+    @Override
+    @JsonIgnore
+    public long getConfigurationVersion() {
+        return this.configurationVersion;
+    }
+
     public CentralUnitType getType() {
         return type;
     }
@@ -87,9 +107,56 @@ public class JsonCentralUnit implements CentralUnit {
 
     // ================================ HELPER METHODS
 
+    /**
+     * The components are looked up in the index that was built when they were set.
+     * Components that are added to the lists afterwards are only found after {@link #setComponentsTypes(Map)} is called again.
+     */
     @Override
     public TDSComponent getComponent(Function function, int number) {
-        return this.componentsTypes.computeIfAbsent(function, k -> new ArrayList<>()).stream().filter(c -> c.getNumber() == number).peek(c -> c.setFunction(function)).findAny().orElseThrow(() -> new ComponentNotFoundInConfigException(function + "(" + number + ") Not Found!"));
+        TDSComponent component = this.componentIndex.get(function, number);
+        if (component == null) {
+            throw new ComponentNotFoundInConfigException(function + "(" + number + ") Not Found!");
+        }
+        return component;
+    }
+
+    /**
+     * Also creates a new state store for the indexed components, the known states are moved to it.
+     * Only called when the components or the type of store are set, never when a component is looked up.
+     */
+    private synchronized ComponentIndex<TDSComponent> buildComponentIndex() {
+        if (this.componentsTypes != null) {
+            this.componentsTypes.forEach((function, components) -> components.forEach(c -> c.setFunction(function)));
+        }
+        ComponentIndex<TDSComponent> index = ComponentIndex.of(this.componentsTypes);
+        StateStore stateStore = this.stateStoreType.create(this.stateCodec, index);
+        if (this.componentsTypes != null) {
+            this.componentsTypes.values().forEach(components -> components.forEach(c -> c.bind(stateStore)));
+        }
+        this.stateStore = stateStore;
+        return index;
+    }
+
+    public StateStoreType getStateStoreType() {
+        return this.stateStoreType;
+    }
+
+    /**
+     * Moves the known states to a new store of the given type.
+     */
+    public void setStateStoreType(StateStoreType stateStoreType) {
+        this.stateStoreType = stateStoreType;
+        if (this.componentsTypes != null) {
+            this.componentIndex = this.buildComponentIndex();
+        }
+    }
+
+    /**
+     * @return The state, version and time of the last update of every component.
+     */
+    @JsonIgnore
+    public StateStore getStateStore() {
+        return this.stateStore;
     }
 
     @Override
@@ -110,14 +177,21 @@ public class JsonCentralUnit implements CentralUnit {
         return this.allComponents;
     }
 
-    public static JsonCentralUnit read(InputStream jsonData) throws IOException {
-
-        //create ObjectMapper instance
-        ObjectMapper objectMapper = new ObjectMapper();
+    /**
+     * Sets the components of a configuration that was read by the {@link JsonCentralUnitReader}, which already collected all components.
+     */
+    void setComponents(Map<Function, List<TDSComponent>> componentsTypes, List<TDSComponent> allComponents) {
+        this.componentsTypes = componentsTypes;
+        this.componentIndex = this.buildComponentIndex();
+        this.allComponents = allComponents;
+        this.configurationVersion++;
+    }
 
-        //convert json string to object
-        JsonCentralUnit clientConfig = objectMapper.readValue(jsonData, JsonCentralUnit.class);
-        LOG.debug("JSON Config loaded: TDS HOST: {}:{}", clientConfig.getHost(), clientConfig.getPort());
+    /**
+     * Reads the configuration with the streaming {@link JsonCentralUnitReader}.
+     */
+    public static JsonCentralUnit read(InputStream jsonData) throws IOException {
+        JsonCentralUnit clientConfig = JsonCentralUnitReader.read(jsonData);
 
         LOG.debug("JsonCentralUnit initialized.");
 
@@ -0,0 +1,122 @@
+package io.github.ridiekel.jeletask.config.model.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.github.ridiekel.jeletask.model.spec.CentralUnitType;
+import io.github.ridiekel.jeletask.model.spec.Function;
+import io.github.ridiekel.jeletask.model.spec.state.StateStoreType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the TDS config JSON file token by token, without binding it through an ObjectMapper.
+ * <p>
+ * The components are collected while they are read, the component index and the state store are built once at the end.
+ * Fields that are not known (e.g. rooms) are skipped and logged at debug level.
+ */
+public final class JsonCentralUnitReader {
+    /**
+     * Logger responsible for logging and debugging statements.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(JsonCentralUnitReader.class);
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private JsonCentralUnitReader() {
+    }
+
+    public static JsonCentralUnit read(InputStream jsonData) throws IOException {
+        JsonCentralUnit centralUnit = new JsonCentralUnit(null, 0);
+        try (JsonParser parser = JSON_FACTORY.createParser(jsonData)) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "host":
+                        centralUnit.setHost(parser.getValueAsString());
+                        break;
+                    case "port":
+                        centralUnit.setPort(parser.getValueAsInt());
+                        break;
+                    case "type":
+                        centralUnit.setType(value == JsonToken.VALUE_NULL ? null : CentralUnitType.valueOf(parser.getText()));
+                        break;
+                    case "stateStoreType":
+                        centralUnit.setStateStoreType(StateStoreType.valueOf(parser.getText()));
+                        break;
+                    case "componentsTypes":
+                        readComponentsTypes(parser, centralUnit);
+                        break;
+                    default:
+                        LOG.debug("Skipping unknown field '{}'", field);
+                        parser.skipChildren();
+                        break;
+                }
+            }
+        }
+
+        LOG.debug("JSON Config loaded: TDS HOST: {}:{}", centralUnit.getHost(), centralUnit.getPort());
+        return centralUnit;
+    }
+
+    private static void readComponentsTypes(JsonParser parser, JsonCentralUnit centralUnit) throws IOException {
+        Map<Function, List<TDSComponent>> componentsTypes = new EnumMap<>(Function.class);
+        List<TDSComponent> allComponents = new ArrayList<>();
+        expect(parser, parser.getCurrentToken(), JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            Function function = Function.valueOf(parser.getCurrentName());
+            List<TDSComponent> components = new ArrayList<>();
+            expect(parser, parser.nextToken(), JsonToken.START_ARRAY);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                TDSComponent component = readComponent(parser);
+                component.setFunction(function);
+                components.add(component);
+                allComponents.add(component);
+            }
+            componentsTypes.put(function, components);
+        }
+        centralUnit.setComponents(componentsTypes, allComponents);
+    }
+
+    private static TDSComponent readComponent(JsonParser parser) throws IOException {
+        TDSComponent component = new TDSComponent();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "number":
+                    component.setNumber(parser.getValueAsInt());
+                    break;
+                case "description":
+                    component.setDescription(parser.getValueAsString());
+                    break;
+                case "type":
+                    component.setType(parser.getValueAsString());
+                    break;
+                case "state":
+                    component.setState(parser.getValueAsString());
+                    break;
+                default:
+                    LOG.debug("Skipping unknown component field '{}'", field);
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        return component;
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Expected " + expected + " but got " + actual + " at " + parser.getCurrentLocation());
+        }
+    }
+}
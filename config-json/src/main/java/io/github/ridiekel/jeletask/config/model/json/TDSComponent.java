@@ -3,6 +3,7 @@ package io.github.ridiekel.jeletask.config.model.json;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import io.github.ridiekel.jeletask.model.spec.ComponentSpec;
 import io.github.ridiekel.jeletask.model.spec.Function;
+import io.github.ridiekel.jeletask.model.spec.state.StateStore;
 
 import java.util.Objects;
 
@@ -14,8 +15,10 @@ public class TDSComponent implements ComponentSpec {
     private String description;
     private Function function;
     private int number;
-    private String state;
+    private volatile String state;
     private String type;
+    private volatile boolean stale;
+    private volatile StateStore stateStore;
 
     /**
      * Default constructor.
@@ -46,8 +49,15 @@ public class TDSComponent implements ComponentSpec {
         this.number = number;
     }
 
+    /**
+     * @return The state in the state store of the central unit, or the state of this component when it is not part of a central unit.
+     */
     @Override
     public String getState() {
+        StateStore stateStore = this.stateStore;
+        if (stateStore != null) {
+            return stateStore.getState(this.function, this.number);
+        }
         if (Objects.equals(this.state, "null")) { //TODO: Check why this sometimes happens
             this.state = null;
         }
@@ -56,7 +66,47 @@ public class TDSComponent implements ComponentSpec {
 
     @Override
     public void setState(String state) {
-        this.state = state;
+        if (Objects.equals(state, "null")) {
+            state = null;
+        }
+        StateStore stateStore = this.stateStore;
+        if (stateStore != null) {
+            stateStore.setState(this.function, this.number, state);
+        } else {
+            this.state = state;
+            this.stale = false;
+        }
+    }
+
+    @Override
+    public boolean isStale() {
+        StateStore stateStore = this.stateStore;
+        return stateStore == null ? this.stale : stateStore.isStale(this.function, this.number);
+    }
+
+    @Override
+    public void setStale(boolean stale) {
+        StateStore stateStore = this.stateStore;
+        if (stateStore != null) {
+            stateStore.setStale(this.function, this.number, stale);
+        } else {
+            this.stale = stale;
+        }
+    }
+
+    /**
+     * From now on the state is kept in the store, the current state is moved to it.
+     */
+    void bind(StateStore stateStore) {
+        String current = this.getState();
+        boolean stale = this.isStale();
+        if (this.function != null && stateStore.contains(this.function, this.number)) {
+            if (current != null) {
+                stateStore.setState(this.function, this.number, current);
+            }
+            stateStore.setStale(this.function, this.number, stale);
+            this.stateStore = stateStore;
+        }
     }
 
     @Override
@@ -0,0 +1,110 @@
+package io.github.ridiekel.jeletask.config.model.json;
+
+import io.github.ridiekel.jeletask.model.spec.CentralUnitType;
+import io.github.ridiekel.jeletask.model.spec.Function;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonCentralUnitReaderTest {
+    /**
+     * Logger responsible for logging and debugging statements.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(JsonCentralUnitReaderTest.class);
+
+    @Test
+    void readsCentralUnitAndComponents() throws IOException {
+        JsonCentralUnit centralUnit = read("{\"host\": \"192.168.0.10\", \"port\": 55957, \"type\": \"MICROS_PLUS\", \"componentsTypes\": {" +
+                "\"RELAY\": [{\"number\": 1, \"description\": \"Kitchen\", \"state\": \"ON\"}, {\"number\": 2, \"description\": \"Hall\"}]," +
+                "\"SENSOR\": [{\"number\": 0, \"description\": \"Outside\", \"type\": \"TEMPERATURE\"}]}}");
+
+        assertEquals("192.168.0.10", centralUnit.getHost());
+        assertEquals(55957, centralUnit.getPort());
+        assertEquals(CentralUnitType.MICROS_PLUS, centralUnit.getCentralUnitType());
+        assertEquals(3, centralUnit.getAllComponents().size());
+        assertEquals("Kitchen", centralUnit.getComponent(Function.RELAY, 1).getDescription());
+        assertEquals("ON", centralUnit.getComponent(Function.RELAY, 1).getState());
+        assertNull(centralUnit.getComponent(Function.RELAY, 2).getState());
+        assertEquals(Function.SENSOR, centralUnit.getComponent(Function.SENSOR, 0).getFunction());
+        assertEquals("TEMPERATURE", centralUnit.getComponent(Function.SENSOR, 0).getType());
+    }
+
+    @Test
+    void skipsUnknownFields() throws IOException {
+        JsonCentralUnit centralUnit = read("{\"host\": \"localhost\", \"rooms\": [{\"name\": \"Kitchen\", \"relays\": [1, 2]}], \"componentsTypes\": {" +
+                "\"RELAY\": [{\"number\": 1, \"room\": {\"name\": \"Kitchen\"}, \"tags\": [\"light\"], \"description\": \"Kitchen\"}]}, \"version\": 3}");
+
+        assertEquals("localhost", centralUnit.getHost());
+        assertEquals("Kitchen", centralUnit.getComponent(Function.RELAY, 1).getDescription());
+        assertEquals(1, centralUnit.getAllComponents().size());
+    }
+
+    @Test
+    void componentsShareOneStateStore() throws IOException {
+        JsonCentralUnit centralUnit = read("{\"componentsTypes\": {\"RELAY\": [{\"number\": 1}], \"FLAG\": [{\"number\": 1}]}}");
+
+        centralUnit.getComponent(Function.FLAG, 1).setState("ON");
+
+        assertSame(centralUnit.getStateStore(), centralUnit.getStateStore());
+        assertEquals("ON", centralUnit.getStateStore().getState(Function.FLAG, 1));
+        assertEquals(1, centralUnit.getConfigurationVersion());
+    }
+
+    @Test
+    void rejectsMalformedComponents() {
+        assertThrows(IOException.class, () -> read("{\"componentsTypes\": {\"RELAY\": {\"number\": 1}}}"));
+    }
+
+    /**
+     * Not an assertion on the numbers, they depend on the machine. The time and allocations of a large configuration are logged.
+     */
+    @Test
+    void readsLargeConfiguration() throws IOException {
+        StringBuilder json = new StringBuilder("{\"host\": \"localhost\", \"port\": 55957, \"type\": \"MICROS_PLUS\", \"componentsTypes\": {");
+        Function[] functions = {Function.RELAY, Function.DIMMER, Function.LOCMOOD, Function.FLAG};
+        int perFunction = 2500;
+        for (int f = 0; f < functions.length; f++) {
+            json.append(f == 0 ? "" : ",").append('"').append(functions[f]).append("\": [");
+            for (int i = 0; i < perFunction; i++) {
+                json.append(i == 0 ? "" : ",").append("{\"number\": ").append(i).append(", \"description\": \"Component ").append(i).append("\", \"room\": \"Room ").append(i % 20).append("\"}");
+            }
+            json.append(']');
+        }
+        byte[] bytes = json.append("}}").toString().getBytes(StandardCharsets.UTF_8);
+
+        long allocatedBefore = getAllocatedBytes();
+        long start = System.nanoTime();
+        JsonCentralUnit centralUnit = JsonCentralUnit.read(new ByteArrayInputStream(bytes));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        long allocated = getAllocatedBytes() - allocatedBefore;
+
+        assertEquals(functions.length * perFunction, centralUnit.getAllComponents().size());
+        LOG.info("Read {} components ({} KB of JSON) in {}ms, {} KB allocated", centralUnit.getAllComponents().size(), bytes.length / 1024, millis, allocatedBefore < 0 ? "?" : allocated / 1024);
+    }
+
+    private static JsonCentralUnit read(String json) throws IOException {
+        return JsonCentralUnit.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * @return The bytes allocated by the current thread, or -1 when the JVM does not tell.
+     */
+    private static long getAllocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
@@ -15,6 +15,13 @@ public interface CentralUnit {
 
     CentralUnitType getCentralUnitType();
 
+    /**
+     * @return A number that changes every time the components are replaced, so what was derived from them can be dropped.
+     */
+    default long getConfigurationVersion() {
+        return 0;
+    }
+
     final class ComponentNotFoundInConfigException extends RuntimeException {
         public ComponentNotFoundInConfigException(String message) {
             super(message);
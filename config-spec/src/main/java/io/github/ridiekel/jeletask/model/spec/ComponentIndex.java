@@ -0,0 +1,69 @@
+package io.github.ridiekel.jeletask.model.spec;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The components of a central unit in an array per function, indexed by their number.
+ * <p>
+ * An index does not change after it is built, so lookups are thread safe and do not allocate.
+ * When the same number is configured twice for a function, the first component is kept.
+ */
+public final class ComponentIndex<C extends ComponentSpec> {
+    private static final Object[] EMPTY = new Object[0];
+
+    private final Object[][] byFunction = new Object[Function.values().length][];
+    private final int size;
+
+    private ComponentIndex(Map<Function, ? extends List<? extends C>> components) {
+        int size = 0;
+        for (Function function : Function.values()) {
+            List<? extends C> functionComponents = components == null ? null : components.get(function);
+            if (functionComponents == null || functionComponents.isEmpty()) {
+                this.byFunction[function.ordinal()] = EMPTY;
+                continue;
+            }
+            int maxNumber = -1;
+            for (C component : functionComponents) {
+                maxNumber = Math.max(maxNumber, component.getNumber());
+            }
+            Object[] byNumber = new Object[maxNumber + 1];
+            for (C component : functionComponents) {
+                int number = component.getNumber();
+                if (number >= 0 && byNumber[number] == null) {
+                    byNumber[number] = component;
+                    size++;
+                }
+            }
+            this.byFunction[function.ordinal()] = byNumber;
+        }
+        this.size = size;
+    }
+
+    public static <C extends ComponentSpec> ComponentIndex<C> of(Map<Function, ? extends List<? extends C>> components) {
+        return new ComponentIndex<>(components);
+    }
+
+    /**
+     * @return The component, or null when there is no component with this number.
+     */
+    @SuppressWarnings("unchecked")
+    public C get(Function function, int number) {
+        Object[] byNumber = this.byFunction[function.ordinal()];
+        return number >= 0 && number < byNumber.length ? (C) byNumber[number] : null;
+    }
+
+    /**
+     * @return The highest number of the function + 1.
+     */
+    public int getCapacity(Function function) {
+        return this.byFunction[function.ordinal()].length;
+    }
+
+    /**
+     * @return The amount of components in the index.
+     */
+    public int size() {
+        return this.size;
+    }
+}
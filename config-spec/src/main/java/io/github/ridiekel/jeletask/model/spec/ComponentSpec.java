@@ -12,4 +12,14 @@ public interface ComponentSpec {
     String getDescription();
 
     String getType();
+
+    /**
+     * @return true when the state is the last known state from before a restart and the central unit did not confirm it yet.
+     */
+    default boolean isStale() {
+        return false;
+    }
+
+    default void setStale(boolean stale) {
+    }
 }
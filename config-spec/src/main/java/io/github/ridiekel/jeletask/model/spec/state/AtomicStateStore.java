@@ -0,0 +1,105 @@
+package io.github.ridiekel.jeletask.model.spec.state;
+
+import io.github.ridiekel.jeletask.model.spec.ComponentIndex;
+import io.github.ridiekel.jeletask.model.spec.Function;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps the slots in atomic arrays per function, indexed by number.
+ * <p>
+ * The version of a slot is odd while it is being written, a reader that needs the state, version and time together
+ * retries when the version was odd or changed while reading (a sequence lock), so readers never take a lock.
+ * Writers of the same slot spin until the version is even and they can increment it, they only write three values.
+ */
+public class AtomicStateStore implements StateStore {
+    private final StateCodec codec;
+    private final AtomicIntegerArray[] states = new AtomicIntegerArray[Function.values().length];
+    private final AtomicLongArray[] versions = new AtomicLongArray[Function.values().length];
+    private final AtomicLongArray[] timestamps = new AtomicLongArray[Function.values().length];
+    private final AtomicIntegerArray[] stale = new AtomicIntegerArray[Function.values().length];
+
+    /**
+     * Creates a slot for every number that fits in the index.
+     */
+    public AtomicStateStore(StateCodec codec, ComponentIndex<?> index) {
+        this.codec = codec;
+        for (Function function : Function.values()) {
+            int capacity = index.getCapacity(function);
+            AtomicIntegerArray functionStates = new AtomicIntegerArray(capacity);
+            for (int i = 0; i < capacity; i++) {
+                functionStates.set(i, NO_STATE);
+            }
+            this.states[function.ordinal()] = functionStates;
+            this.versions[function.ordinal()] = new AtomicLongArray(capacity);
+            this.timestamps[function.ordinal()] = new AtomicLongArray(capacity);
+            this.stale[function.ordinal()] = new AtomicIntegerArray(capacity);
+        }
+    }
+
+    @Override
+    public boolean contains(Function function, int number) {
+        return number >= 0 && number < this.states[function.ordinal()].length();
+    }
+
+    @Override
+    public int getEncodedState(Function function, int number) {
+        return this.states[function.ordinal()].get(number);
+    }
+
+    @Override
+    public long setEncodedState(Function function, int number, int encoded) {
+        AtomicLongArray versions = this.versions[function.ordinal()];
+        long version;
+        do {
+            version = versions.get(number);
+        } while ((version & 1) != 0 || !versions.compareAndSet(number, version, version + 1));
+        this.states[function.ordinal()].set(number, encoded);
+        this.timestamps[function.ordinal()].set(number, System.currentTimeMillis());
+        if (this.stale[function.ordinal()].get(number) != 0) {
+            this.stale[function.ordinal()].set(number, 0);
+        }
+        versions.set(number, version + 2);
+        return (version + 2) >>> 1;
+    }
+
+    @Override
+    public boolean isStale(Function function, int number) {
+        return this.stale[function.ordinal()].get(number) != 0;
+    }
+
+    @Override
+    public void setStale(Function function, int number, boolean stale) {
+        this.stale[function.ordinal()].set(number, stale ? 1 : 0);
+    }
+
+    @Override
+    public long getVersion(Function function, int number) {
+        return this.versions[function.ordinal()].get(number) >>> 1;
+    }
+
+    @Override
+    public long getTimestamp(Function function, int number) {
+        return this.timestamps[function.ordinal()].get(number);
+    }
+
+    @Override
+    public Snapshot getSnapshot(Function function, int number) {
+        AtomicLongArray versions = this.versions[function.ordinal()];
+        while (true) {
+            long version = versions.get(number);
+            int encoded = this.states[function.ordinal()].get(number);
+            long timestamp = this.timestamps[function.ordinal()].get(number);
+            if ((version & 1) == 0 && versions.get(number) == version) {
+                return new Snapshot(this.codec.decode(function, encoded), version >>> 1, timestamp);
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public StateCodec getCodec() {
+        return this.codec;
+    }
+}
@@ -0,0 +1,163 @@
+package io.github.ridiekel.jeletask.model.spec.state;
+
+import io.github.ridiekel.jeletask.model.spec.Function;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Encodes numbers directly and gives every other distinct state a number the first time it is encoded.
+ * <p>
+ * Dimmers and sensors report a lot of different numbers (0 - 100, lux, tenths of a degree), they are encoded
+ * as a tagged value, so they never end up in the dictionary. Only numbers written the way the state calculators format
+ * them are encoded like this (e.g. "7", "-3", "21.5", "18.0"), any other string goes to the dictionary and keeps its exact form.
+ * The named states (ON, OFF, UP, ...) are few, the dictionary holds at most {@link #MAX_DICTIONARY_SIZE} of them.
+ * <p>
+ * Decoding a named state or a number up to 255 returns the same String instance every time, other numbers are formatted again.
+ */
+public class InterningStateCodec implements StateCodec {
+    public static final int MAX_DICTIONARY_SIZE = 1 << 16;
+
+    private static final int TAG_SHIFT = 30;
+    private static final int DICTIONARY = 0;
+    private static final int INTEGER = 1;
+    private static final int TENTHS = 2;
+    private static final int VALUE_MASK = (1 << TAG_SHIFT) - 1;
+    private static final int MAX_INTEGER = (1 << (TAG_SHIFT - 1)) - 1;
+    private static final int MAX_TENTHS = 99_999_999;
+
+    /**
+     * The same instances as the state calculators format, so a decoded state can be compared by identity.
+     */
+    private static final String[] NUMBERS = new String[256];
+
+    static {
+        for (int i = 0; i < NUMBERS.length; i++) {
+            NUMBERS[i] = String.valueOf(i).intern();
+        }
+    }
+
+    private final Map<String, Integer> byState = new ConcurrentHashMap<>();
+    private volatile String[] states = new String[16];
+    private int size;
+
+    @Override
+    public int encode(Function function, String state) {
+        if (state == null) {
+            return StateStore.NO_STATE;
+        }
+        int number = encodeNumber(state);
+        if (number != StateStore.NO_STATE) {
+            return number;
+        }
+        Integer encoded = this.byState.get(state);
+        return encoded == null ? this.register(state) : encoded;
+    }
+
+    private synchronized int register(String state) {
+        Integer encoded = this.byState.get(state);
+        if (encoded != null) {
+            return encoded;
+        }
+        if (this.size == MAX_DICTIONARY_SIZE) {
+            throw new IllegalStateException("More than " + MAX_DICTIONARY_SIZE + " distinct named states, can not encode '" + state + "'");
+        }
+        String[] states = this.states;
+        if (this.size == states.length) {
+            states = Arrays.copyOf(states, states.length * 2);
+        }
+        states[this.size] = state;
+        this.states = states;
+        this.byState.put(state, this.size);
+        return this.size++;
+    }
+
+    @Override
+    public String decode(Function function, int encoded) {
+        if (encoded == StateStore.NO_STATE) {
+            return null;
+        }
+        int value = (encoded << (32 - TAG_SHIFT)) >> (32 - TAG_SHIFT);
+        switch (encoded >>> TAG_SHIFT) {
+            case DICTIONARY:
+                String[] states = this.states;
+                return encoded < states.length ? states[encoded] : null;
+            case INTEGER:
+                return value >= 0 && value < NUMBERS.length ? NUMBERS[value] : String.valueOf(value);
+            case TENTHS:
+                return String.valueOf(value / 10d);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @return The amount of distinct named states.
+     */
+    public int size() {
+        return this.byState.size();
+    }
+
+    /**
+     * @return The tagged number, or {@link StateStore#NO_STATE} when the state is not a number that decodes to the same string.
+     */
+    private static int encodeNumber(String state) {
+        int length = state.length();
+        boolean negative = length > 0 && state.charAt(0) == '-';
+        int start = negative ? 1 : 0;
+        int point = state.indexOf('.', start);
+        int integerEnd = point < 0 ? length : point;
+        if (!isCanonicalInteger(state, start, integerEnd)) {
+            return StateStore.NO_STATE;
+        }
+
+        long value = 0;
+        for (int i = start; i < integerEnd; i++) {
+            value = value * 10 + (state.charAt(i) - '0');
+            if (value > MAX_TENTHS) {
+                return StateStore.NO_STATE;
+            }
+        }
+
+        if (point < 0) {
+            if (value > MAX_INTEGER || (negative && value == 0)) {
+                return StateStore.NO_STATE;
+            }
+            return tag(INTEGER, (int) (negative ? -value : value));
+        }
+
+        // One decimal, like Double.toString formats a number of tenths
+        if (point != length - 2 || !isDigit(state.charAt(length - 1))) {
+            return StateStore.NO_STATE;
+        }
+        long tenths = value * 10 + (state.charAt(length - 1) - '0');
+        if (tenths > MAX_TENTHS || (negative && tenths == 0)) {
+            return StateStore.NO_STATE;
+        }
+        return tag(TENTHS, (int) (negative ? -tenths : tenths));
+    }
+
+    /**
+     * Digits without leading zeros, or a single 0.
+     */
+    private static boolean isCanonicalInteger(String state, int start, int end) {
+        if (start == end || (state.charAt(start) == '0' && end - start > 1)) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (!isDigit(state.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int tag(int tag, int value) {
+        return (tag << TAG_SHIFT) | (value & VALUE_MASK);
+    }
+}
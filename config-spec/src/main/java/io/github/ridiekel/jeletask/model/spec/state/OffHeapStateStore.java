@@ -0,0 +1,181 @@
+package io.github.ridiekel.jeletask.model.spec.state;
+
+import io.github.ridiekel.jeletask.model.spec.ComponentIndex;
+import io.github.ridiekel.jeletask.model.spec.Function;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Keeps the slots as packed primitives in a direct buffer, outside of the heap.
+ * <p>
+ * A slot takes 16 bytes: the version (int), the encoded state (int) and the time of the last update (long).
+ * The version is a sequence lock like in {@link AtomicStateStore}, it is odd while the slot is being written.
+ * Readers retry instead of taking a lock, writers of the same slot spin until the one before them is done.
+ * Only the state lives in the buffer, the description and type of the components stay in the configuration.
+ * Whether a state is stale is kept in a bitmap on the heap, one bit per slot.
+ * Several central units can share one buffer, see {@link #allocate(StateCodec, List)}.
+ */
+public class OffHeapStateStore implements StateStore {
+    public static final int SLOT_SIZE = 16;
+
+    private static final int VERSION_OFFSET = 0;
+    private static final int STATE_OFFSET = 4;
+    private static final int TIMESTAMP_OFFSET = 8;
+
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final StateCodec codec;
+    private final ByteBuffer buffer;
+    private final int[] firstSlot = new int[Function.values().length];
+    private final int[] capacity = new int[Function.values().length];
+    private final AtomicIntegerArray stale;
+
+    public OffHeapStateStore(StateCodec codec, ComponentIndex<?> index) {
+        this(codec, index, allocateDirect(getSlotCount(index)));
+    }
+
+    private OffHeapStateStore(StateCodec codec, ComponentIndex<?> index, ByteBuffer buffer) {
+        this.codec = codec;
+        this.buffer = buffer;
+        int slots = 0;
+        for (Function function : Function.values()) {
+            this.firstSlot[function.ordinal()] = slots;
+            this.capacity[function.ordinal()] = index.getCapacity(function);
+            slots += index.getCapacity(function);
+        }
+        this.stale = new AtomicIntegerArray((slots + 31) >>> 5);
+        for (int slot = 0; slot < slots; slot++) {
+            INTS.setRelease(this.buffer, slot * SLOT_SIZE + STATE_OFFSET, NO_STATE);
+        }
+    }
+
+    /**
+     * Creates the stores of several central units in one buffer, in the order of the indexes.
+     */
+    public static List<OffHeapStateStore> allocate(StateCodec codec, List<? extends ComponentIndex<?>> indexes) {
+        int slots = 0;
+        for (ComponentIndex<?> index : indexes) {
+            slots += getSlotCount(index);
+        }
+        ByteBuffer buffer = allocateDirect(slots);
+        List<OffHeapStateStore> stores = new ArrayList<>();
+        for (ComponentIndex<?> index : indexes) {
+            int size = getSlotCount(index) * SLOT_SIZE;
+            ByteBuffer slice = buffer.duplicate();
+            slice.limit(slice.position() + size);
+            stores.add(new OffHeapStateStore(codec, index, slice.slice()));
+            buffer.position(buffer.position() + size);
+        }
+        return stores;
+    }
+
+    private static int getSlotCount(ComponentIndex<?> index) {
+        int slots = 0;
+        for (Function function : Function.values()) {
+            slots += index.getCapacity(function);
+        }
+        return slots;
+    }
+
+    /**
+     * The atomic access needs the slots to be aligned to 8 bytes.
+     */
+    private static ByteBuffer allocateDirect(int slots) {
+        return ByteBuffer.allocateDirect(slots * SLOT_SIZE + 8).alignedSlice(8).order(ByteOrder.nativeOrder());
+    }
+
+    private int offset(Function function, int number) {
+        if (!this.contains(function, number)) {
+            throw new IndexOutOfBoundsException(function + "(" + number + ") has no slot in the state store");
+        }
+        return (this.firstSlot[function.ordinal()] + number) * SLOT_SIZE;
+    }
+
+    @Override
+    public boolean contains(Function function, int number) {
+        return number >= 0 && number < this.capacity[function.ordinal()];
+    }
+
+    @Override
+    public int getEncodedState(Function function, int number) {
+        return (int) INTS.getVolatile(this.buffer, this.offset(function, number) + STATE_OFFSET);
+    }
+
+    @Override
+    public long setEncodedState(Function function, int number, int encoded) {
+        int offset = this.offset(function, number);
+        int version;
+        do {
+            version = (int) INTS.getVolatile(this.buffer, offset + VERSION_OFFSET);
+        } while ((version & 1) != 0 || !INTS.compareAndSet(this.buffer, offset + VERSION_OFFSET, version, version + 1));
+        INTS.setVolatile(this.buffer, offset + STATE_OFFSET, encoded);
+        LONGS.setVolatile(this.buffer, offset + TIMESTAMP_OFFSET, System.currentTimeMillis());
+        this.updateStale(offset / SLOT_SIZE, false);
+        INTS.setVolatile(this.buffer, offset + VERSION_OFFSET, version + 2);
+        return Integer.toUnsignedLong(version + 2) >>> 1;
+    }
+
+    @Override
+    public boolean isStale(Function function, int number) {
+        int slot = this.offset(function, number) / SLOT_SIZE;
+        return (this.stale.get(slot >>> 5) & (1 << slot)) != 0;
+    }
+
+    @Override
+    public void setStale(Function function, int number, boolean stale) {
+        this.updateStale(this.offset(function, number) / SLOT_SIZE, stale);
+    }
+
+    private void updateStale(int slot, boolean stale) {
+        int bit = 1 << slot;
+        int word;
+        int updated;
+        do {
+            word = this.stale.get(slot >>> 5);
+            updated = stale ? word | bit : word & ~bit;
+        } while (word != updated && !this.stale.compareAndSet(slot >>> 5, word, updated));
+    }
+
+    @Override
+    public long getVersion(Function function, int number) {
+        return Integer.toUnsignedLong((int) INTS.getVolatile(this.buffer, this.offset(function, number) + VERSION_OFFSET)) >>> 1;
+    }
+
+    @Override
+    public long getTimestamp(Function function, int number) {
+        return (long) LONGS.getVolatile(this.buffer, this.offset(function, number) + TIMESTAMP_OFFSET);
+    }
+
+    @Override
+    public Snapshot getSnapshot(Function function, int number) {
+        int offset = this.offset(function, number);
+        while (true) {
+            int version = (int) INTS.getVolatile(this.buffer, offset + VERSION_OFFSET);
+            int encoded = (int) INTS.getVolatile(this.buffer, offset + STATE_OFFSET);
+            long timestamp = (long) LONGS.getVolatile(this.buffer, offset + TIMESTAMP_OFFSET);
+            if ((version & 1) == 0 && (int) INTS.getVolatile(this.buffer, offset + VERSION_OFFSET) == version) {
+                return new Snapshot(this.codec.decode(function, encoded), Integer.toUnsignedLong(version) >>> 1, timestamp);
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public StateCodec getCodec() {
+        return this.codec;
+    }
+
+    /**
+     * @return The amount of bytes the slots take outside of the heap.
+     */
+    public long getMemoryBytes() {
+        return this.buffer.capacity();
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.ridiekel.jeletask.model.spec.state;
+
+import io.github.ridiekel.jeletask.model.spec.Function;
+
+/**
+ * Converts states to the int a {@link StateStore} keeps, and back.
+ */
+public interface StateCodec {
+    /**
+     * @return The encoded state, {@link StateStore#NO_STATE} for null.
+     */
+    int encode(Function function, String state);
+
+    /**
+     * @return The state, null for {@link StateStore#NO_STATE}.
+     */
+    String decode(Function function, int encoded);
+}
@@ -0,0 +1,183 @@
+package io.github.ridiekel.jeletask.model.spec.state;
+
+import io.github.ridiekel.jeletask.model.spec.CentralUnit;
+import io.github.ridiekel.jeletask.model.spec.ComponentSpec;
+import io.github.ridiekel.jeletask.model.spec.Function;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * The last known states of the components of a central unit, kept in a memory-mapped file so they survive a restart.
+ * <p>
+ * The file starts with a header (magic, format, amount of states, length and checksum of the states),
+ * followed by the function name, number and state of every component that has a state.
+ * The states are stored as strings, the encoded values of a {@link StateCodec} can differ between runs.
+ * The header is written last, a file that was not written completely does not match its checksum and is not restored.
+ */
+public final class StateSnapshot {
+    private static final int MAGIC = 0x54445353;
+    private static final int FORMAT = 1;
+    private static final int HEADER_SIZE = 24;
+
+    private final Path file;
+    private long lastChecksum = -1;
+
+    public StateSnapshot(Path file) {
+        this.file = file;
+    }
+
+    public Path getFile() {
+        return this.file;
+    }
+
+    /**
+     * Writes the states of all components, unless they did not change since the last write.
+     *
+     * @return false when nothing was written.
+     */
+    public synchronized boolean write(CentralUnit centralUnit) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        int bodyLength = 0;
+        for (ComponentSpec component : centralUnit.getAllComponents()) {
+            String state = component.getState();
+            if (component.getFunction() != null && state != null) {
+                Entry entry = new Entry(component.getFunction().name().getBytes(StandardCharsets.US_ASCII), component.getNumber(), state.getBytes(StandardCharsets.UTF_8));
+                entries.add(entry);
+                bodyLength += entry.getLength();
+            }
+        }
+
+        CRC32 crc = new CRC32();
+        for (Entry entry : entries) {
+            entry.update(crc);
+        }
+        if (crc.getValue() == this.lastChecksum && Files.exists(this.file)) {
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            channel.truncate(HEADER_SIZE + bodyLength);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + bodyLength);
+            buffer.position(HEADER_SIZE);
+            for (Entry entry : entries) {
+                entry.write(buffer);
+            }
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, FORMAT);
+            buffer.putInt(8, entries.size());
+            buffer.putInt(12, bodyLength);
+            buffer.putLong(16, crc.getValue());
+            buffer.force();
+        }
+        this.lastChecksum = crc.getValue();
+        return true;
+    }
+
+    /**
+     * Sets the states from the file on the components that do not have a state yet, and marks them as stale.
+     * States of components that are no longer in the configuration are skipped.
+     *
+     * @return The amount of restored states, 0 when there is no file.
+     * @throws IOException When the file can not be read or was not written completely.
+     */
+    public synchronized int restore(CentralUnit centralUnit) throws IOException {
+        if (!Files.exists(this.file)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("State snapshot " + this.file + " is too small (" + size + " bytes)");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+                throw new IOException("State snapshot " + this.file + " has an unknown format");
+            }
+            int count = buffer.getInt(8);
+            int bodyLength = buffer.getInt(12);
+            if (bodyLength != size - HEADER_SIZE) {
+                throw new IOException("State snapshot " + this.file + " was not written completely");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().position(HEADER_SIZE));
+            if (crc.getValue() != buffer.getLong(16)) {
+                throw new IOException("State snapshot " + this.file + " does not match its checksum");
+            }
+
+            buffer.position(HEADER_SIZE);
+            int restored = 0;
+            for (int i = 0; i < count; i++) {
+                String functionName = readString(buffer, buffer.get() & 0xff, StandardCharsets.US_ASCII);
+                int number = buffer.getInt();
+                String state = readString(buffer, buffer.getShort() & 0xffff, StandardCharsets.UTF_8);
+                if (restore(centralUnit, functionName, number, state)) {
+                    restored++;
+                }
+            }
+            this.lastChecksum = crc.getValue();
+            return restored;
+        } catch (RuntimeException e) {
+            throw new IOException("State snapshot " + this.file + " can not be read: " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean restore(CentralUnit centralUnit, String functionName, int number, String state) {
+        ComponentSpec component;
+        try {
+            component = centralUnit.getComponent(Function.valueOf(functionName), number);
+        } catch (IllegalArgumentException | CentralUnit.ComponentNotFoundInConfigException e) {
+            return false;
+        }
+        if (component == null || component.getState() != null) {
+            return false;
+        }
+        component.setState(state);
+        component.setStale(true);
+        return true;
+    }
+
+    private static String readString(ByteBuffer buffer, int length, Charset charset) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, charset);
+    }
+
+    private static final class Entry {
+        private final byte[] function;
+        private final int number;
+        private final byte[] state;
+
+        private Entry(byte[] function, int number, byte[] state) {
+            this.function = function;
+            this.number = number;
+            this.state = state;
+        }
+
+        private int getLength() {
+            return 1 + this.function.length + 4 + 2 + this.state.length;
+        }
+
+        private void write(ByteBuffer buffer) {
+            buffer.put((byte) this.function.length).put(this.function);
+            buffer.putInt(this.number);
+            buffer.putShort((short) this.state.length).put(this.state);
+        }
+
+        private void update(CRC32 crc) {
+            ByteBuffer bytes = ByteBuffer.allocate(this.getLength());
+            this.write(bytes);
+            crc.update(bytes.array());
+        }
+    }
+}
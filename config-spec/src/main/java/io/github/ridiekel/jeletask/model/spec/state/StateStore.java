@@ -0,0 +1,96 @@
+package io.github.ridiekel.jeletask.model.spec.state;
+
+import io.github.ridiekel.jeletask.model.spec.Function;
+
+/**
+ * The runtime state of the components of a central unit, by function and number.
+ * <p>
+ * Every slot holds the encoded state, a version that is incremented on every update and the time of the last update.
+ * Implementations can be used from any thread. Reads take no lock, a read of the state, version and time together
+ * retries while the slot is being written. Writes of the same slot are serialized by a sequence lock on the version:
+ * a writer spins until the writer before it is done, writes of different slots do not wait for each other.
+ */
+public interface StateStore {
+    /**
+     * The encoded value of an unknown state.
+     */
+    int NO_STATE = -1;
+
+    /**
+     * @return false when the store has no slot for the component.
+     */
+    boolean contains(Function function, int number);
+
+    int getEncodedState(Function function, int number);
+
+    /**
+     * Also marks the state as confirmed, see {@link #isStale(Function, int)}.
+     *
+     * @return The new version of the slot.
+     */
+    long setEncodedState(Function function, int number, int encoded);
+
+    /**
+     * @return true when the state was restored (e.g. from a {@link StateSnapshot}) and was not set since.
+     */
+    boolean isStale(Function function, int number);
+
+    void setStale(Function function, int number, boolean stale);
+
+    /**
+     * @return The amount of updates of the slot, 0 when it never got a state.
+     */
+    long getVersion(Function function, int number);
+
+    /**
+     * @return The time of the last update in milliseconds since the epoch, 0 when it never got a state.
+     */
+    long getTimestamp(Function function, int number);
+
+    /**
+     * @return The state, version and time of a slot, read at the same moment.
+     */
+    Snapshot getSnapshot(Function function, int number);
+
+    StateCodec getCodec();
+
+    default String getState(Function function, int number) {
+        return this.getCodec().decode(function, this.getEncodedState(function, number));
+    }
+
+    default long setState(Function function, int number, String state) {
+        return this.setEncodedState(function, number, this.getCodec().encode(function, state));
+    }
+
+    final class Snapshot {
+        private final String state;
+        private final long version;
+        private final long timestamp;
+
+        public Snapshot(String state, long version, long timestamp) {
+            this.state = state;
+            this.version = version;
+            this.timestamp = timestamp;
+        }
+
+        public String getState() {
+            return this.state;
+        }
+
+        public long getVersion() {
+            return this.version;
+        }
+
+        public long getTimestamp() {
+            return this.timestamp;
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{" + "state='" + this.state + '\'' +
+                    ", version=" + this.version +
+                    ", timestamp=" + this.timestamp +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.ridiekel.jeletask.model.spec.state;
+
+import io.github.ridiekel.jeletask.model.spec.ComponentIndex;
+
+import java.util.function.BiFunction;
+
+/**
+ * Where the states of the components are kept.
+ */
+public enum StateStoreType {
+    /**
+     * Atomic arrays on the heap.
+     */
+    HEAP(AtomicStateStore::new),
+    /**
+     * Packed slots in a direct buffer, for very large installations.
+     */
+    OFF_HEAP(OffHeapStateStore::new);
+
+    private final BiFunction<StateCodec, ComponentIndex<?>, StateStore> factory;
+
+    StateStoreType(BiFunction<StateCodec, ComponentIndex<?>, StateStore> factory) {
+        this.factory = factory;
+    }
+
+    public StateStore create(StateCodec codec, ComponentIndex<?> index) {
+        return this.factory.apply(codec, index);
+    }
+}
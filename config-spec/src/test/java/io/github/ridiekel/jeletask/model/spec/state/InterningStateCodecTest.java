@@ -0,0 +1,70 @@
+package io.github.ridiekel.jeletask.model.spec.state;
+
+import io.github.ridiekel.jeletask.model.spec.Function;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InterningStateCodecTest {
+    private final InterningStateCodec codec = new InterningStateCodec();
+
+    @Test
+    void namedStatesAreInterned() {
+        int on = this.codec.encode(Function.RELAY, "ON");
+
+        assertEquals(on, this.codec.encode(Function.RELAY, new String("ON")));
+        assertSame(this.codec.decode(Function.RELAY, on), this.codec.decode(Function.RELAY, on));
+        assertEquals("ON", this.codec.decode(Function.RELAY, on));
+        assertEquals(1, this.codec.size());
+    }
+
+    @Test
+    void numbersDoNotGrowTheDictionary() {
+        for (int i = -3000; i <= 70000; i++) {
+            this.assertRoundTrip(String.valueOf(i));
+            this.assertRoundTrip(String.valueOf(i / 10d));
+        }
+        this.assertRoundTrip("9999999.9");
+        assertEquals(0, this.codec.size());
+
+        // Out of the range of a tagged number
+        this.assertRoundTrip("2113489039");
+        assertEquals(1, this.codec.size());
+    }
+
+    @Test
+    void smallNumbersDecodeToTheSameInstance() {
+        assertSame("42", this.codec.decode(Function.DIMMER, this.codec.encode(Function.DIMMER, new String("42"))));
+    }
+
+    @Test
+    void otherSpellingsKeepTheirExactForm() {
+        for (String state : new String[]{"007", "-0", "-0.0", "1.50", "1.", ".5", "1e3", "+1", "", "-", "1.0E7", "21,5", "12345678901"}) {
+            this.assertRoundTrip(state);
+        }
+    }
+
+    @Test
+    void noState() {
+        assertEquals(StateStore.NO_STATE, this.codec.encode(Function.RELAY, null));
+        assertNull(this.codec.decode(Function.RELAY, StateStore.NO_STATE));
+    }
+
+    @Test
+    void dictionaryIsBounded() {
+        for (int i = 0; i < InterningStateCodec.MAX_DICTIONARY_SIZE; i++) {
+            this.codec.encode(Function.RELAY, "S" + i);
+        }
+
+        assertThrows(IllegalStateException.class, () -> this.codec.encode(Function.RELAY, "ONE_TOO_MANY"));
+        assertEquals("S0", this.codec.decode(Function.RELAY, this.codec.encode(Function.RELAY, "S0")));
+        this.assertRoundTrip("12");
+    }
+
+    private void assertRoundTrip(String state) {
+        assertEquals(state, this.codec.decode(Function.SENSOR, this.codec.encode(Function.SENSOR, state)));
+    }
+}
@@ -0,0 +1,242 @@
+package io.github.ridiekel.jeletask.model.spec.state;
+
+import io.github.ridiekel.jeletask.model.spec.CentralUnit;
+import io.github.ridiekel.jeletask.model.spec.CentralUnitType;
+import io.github.ridiekel.jeletask.model.spec.ComponentIndex;
+import io.github.ridiekel.jeletask.model.spec.ComponentSpec;
+import io.github.ridiekel.jeletask.model.spec.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StateSnapshotTest {
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private TestCentralUnit written;
+
+    @BeforeEach
+    void setUp() {
+        this.file = this.directory.resolve("states.bin");
+        this.written = centralUnit(3);
+        this.written.getComponent(Function.RELAY, 1).setState("ON");
+        this.written.getComponent(Function.RELAY, 2).setState("OFF");
+        this.written.getComponent(Function.SENSOR, 1).setState("21.5");
+        this.written.getComponent(Function.LOCMOOD, 3).setState("\u00c9T\u00c9");
+    }
+
+    @Test
+    void restoresStatesAsStale() throws IOException {
+        assertTrue(new StateSnapshot(this.file).write(this.written));
+
+        TestCentralUnit restored = centralUnit(3);
+        assertEquals(4, new StateSnapshot(this.file).restore(restored));
+
+        assertEquals("ON", restored.getComponent(Function.RELAY, 1).getState());
+        assertEquals("OFF", restored.getComponent(Function.RELAY, 2).getState());
+        assertEquals("21.5", restored.getComponent(Function.SENSOR, 1).getState());
+        assertEquals("\u00c9T\u00c9", restored.getComponent(Function.LOCMOOD, 3).getState());
+        assertNull(restored.getComponent(Function.RELAY, 3).getState());
+        assertTrue(restored.getComponent(Function.RELAY, 1).isStale());
+        assertFalse(restored.getComponent(Function.RELAY, 3).isStale());
+    }
+
+    @Test
+    void doesNotOverwriteKnownStates() throws IOException {
+        new StateSnapshot(this.file).write(this.written);
+
+        TestCentralUnit restored = centralUnit(3);
+        restored.getComponent(Function.RELAY, 1).setState("OFF");
+
+        assertEquals(3, new StateSnapshot(this.file).restore(restored));
+        assertEquals("OFF", restored.getComponent(Function.RELAY, 1).getState());
+        assertFalse(restored.getComponent(Function.RELAY, 1).isStale());
+    }
+
+    @Test
+    void skipsComponentsThatAreNoLongerConfigured() throws IOException {
+        TestCentralUnit written = centralUnit(5);
+        written.getComponent(Function.RELAY, 5).setState("ON");
+        new StateSnapshot(this.file).write(written);
+
+        assertEquals(0, new StateSnapshot(this.file).restore(centralUnit(3)));
+    }
+
+    @Test
+    void writesOnlyWhenStatesChanged() throws IOException {
+        StateSnapshot snapshot = new StateSnapshot(this.file);
+
+        assertTrue(snapshot.write(this.written));
+        assertFalse(snapshot.write(this.written));
+
+        this.written.getComponent(Function.RELAY, 3).setState("ON");
+        assertTrue(snapshot.write(this.written));
+        assertEquals(5, new StateSnapshot(this.file).restore(centralUnit(3)));
+    }
+
+    @Test
+    void missingFileRestoresNothing() throws IOException {
+        assertEquals(0, new StateSnapshot(this.file).restore(centralUnit(3)));
+    }
+
+    @Test
+    void rejectsCorruptedState() throws IOException {
+        new StateSnapshot(this.file).write(this.written);
+        byte[] bytes = Files.readAllBytes(this.file);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(this.file, bytes);
+
+        this.assertNotRestored();
+    }
+
+    @Test
+    void rejectsIncompleteFile() throws IOException {
+        new StateSnapshot(this.file).write(this.written);
+        try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        this.assertNotRestored();
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        Files.write(this.file, new byte[10]);
+        this.assertNotRestored();
+
+        Files.write(this.file, new byte[100]);
+        this.assertNotRestored();
+    }
+
+    private void assertNotRestored() {
+        TestCentralUnit restored = centralUnit(3);
+        assertThrows(IOException.class, () -> new StateSnapshot(this.file).restore(restored));
+        for (ComponentSpec component : restored.getAllComponents()) {
+            assertNull(component.getState());
+        }
+    }
+
+    private static TestCentralUnit centralUnit(int count) {
+        Map<Function, List<TestComponent>> components = new EnumMap<>(Function.class);
+        for (Function function : new Function[]{Function.RELAY, Function.LOCMOOD, Function.SENSOR}) {
+            List<TestComponent> list = new ArrayList<>();
+            for (int number = 1; number <= count; number++) {
+                list.add(new TestComponent(function, number));
+            }
+            components.put(function, list);
+        }
+        return new TestCentralUnit(components);
+    }
+
+    private static final class TestCentralUnit implements CentralUnit {
+        private final Map<Function, List<TestComponent>> components;
+        private final ComponentIndex<TestComponent> index;
+
+        private TestCentralUnit(Map<Function, List<TestComponent>> components) {
+            this.components = components;
+            this.index = ComponentIndex.of(components);
+        }
+
+        @Override
+        public String getHost() {
+            return "localhost";
+        }
+
+        @Override
+        public int getPort() {
+            return 55957;
+        }
+
+        @Override
+        public TestComponent getComponent(Function function, int number) {
+            return this.index.get(function, number);
+        }
+
+        @Override
+        public List<TestComponent> getComponents(Function function) {
+            return this.components.get(function);
+        }
+
+        @Override
+        public List<TestComponent> getAllComponents() {
+            List<TestComponent> all = new ArrayList<>();
+            this.components.values().forEach(all::addAll);
+            return all;
+        }
+
+        @Override
+        public CentralUnitType getCentralUnitType() {
+            return CentralUnitType.MICROS_PLUS;
+        }
+    }
+
+    private static final class TestComponent implements ComponentSpec {
+        private final Function function;
+        private final int number;
+        private String state;
+        private boolean stale;
+
+        private TestComponent(Function function, int number) {
+            this.function = function;
+            this.number = number;
+        }
+
+        @Override
+        public String getState() {
+            return this.state;
+        }
+
+        @Override
+        public void setState(String state) {
+            this.state = state;
+            this.stale = false;
+        }
+
+        @Override
+        public Function getFunction() {
+            return this.function;
+        }
+
+        @Override
+        public int getNumber() {
+            return this.number;
+        }
+
+        @Override
+        public String getDescription() {
+            return this.function + " " + this.number;
+        }
+
+        @Override
+        public String getType() {
+            return null;
+        }
+
+        @Override
+        public boolean isStale() {
+            return this.stale;
+        }
+
+        @Override
+        public void setStale(boolean stale) {
+            this.stale = stale;
+        }
+    }
+}
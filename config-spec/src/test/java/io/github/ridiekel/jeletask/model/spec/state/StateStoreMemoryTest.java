@@ -0,0 +1,130 @@
+package io.github.ridiekel.jeletask.model.spec.state;
+
+import io.github.ridiekel.jeletask.model.spec.ComponentIndex;
+import io.github.ridiekel.jeletask.model.spec.ComponentSpec;
+import io.github.ridiekel.jeletask.model.spec.Function;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StateStoreMemoryTest {
+    /**
+     * Logger responsible for logging and debugging statements.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(StateStoreMemoryTest.class);
+
+    /**
+     * Not an assertion on the exact numbers, they depend on the JVM.
+     * Compares the heap each store retains after a full GC, with a state in every slot.
+     * The off heap store only keeps the stale bitmap on the heap, its slots are in a direct buffer.
+     */
+    @Test
+    void offHeapStoreKeepsTheSlotsOutOfTheHeap() {
+        for (int components : new int[]{10_000, 100_000}) {
+            ComponentIndex<TestComponent> index = index(components);
+            int slots = slots(index);
+
+            long heap = retainedHeap(StateStoreType.HEAP, index);
+            long offHeap = retainedHeap(StateStoreType.OFF_HEAP, index);
+            long direct = ((OffHeapStateStore) StateStoreType.OFF_HEAP.create(new InterningStateCodec(), index)).getMemoryBytes();
+
+            LOG.info("{} components: HEAP store {}KB heap, OFF_HEAP store {}KB heap + {}KB direct", components, heap / 1024, offHeap / 1024, direct / 1024);
+            // The buffer has up to 8 bytes more, to align the slots
+            assertTrue(direct >= (long) slots * OffHeapStateStore.SLOT_SIZE && direct <= (long) slots * OffHeapStateStore.SLOT_SIZE + 8, String.valueOf(direct));
+            if (components >= 100_000) {
+                // The heap store takes about 24 bytes per slot, far more than the noise of the measurement
+                assertTrue(offHeap < heap / 4, offHeap + " >= " + heap + " / 4");
+            }
+        }
+    }
+
+    private static long retainedHeap(StateStoreType type, ComponentIndex<TestComponent> index) {
+        long before = usedHeapAfterGc();
+        StateStore store = type.create(new InterningStateCodec(), index);
+        for (Function function : Function.values()) {
+            for (int number = 0; number < index.getCapacity(function); number++) {
+                store.setState(function, number, number % 2 == 0 ? "ON" : "OFF");
+            }
+        }
+        long after = usedHeapAfterGc();
+        Reference.reachabilityFence(store);
+        return after - before;
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static int slots(ComponentIndex<?> index) {
+        int slots = 0;
+        for (Function function : Function.values()) {
+            slots += index.getCapacity(function);
+        }
+        return slots;
+    }
+
+    /**
+     * Spreads the components over all functions, numbered from 1.
+     */
+    private static ComponentIndex<TestComponent> index(int components) {
+        Function[] functions = Function.values();
+        Map<Function, List<TestComponent>> byFunction = new EnumMap<>(Function.class);
+        for (int i = 0; i < components; i++) {
+            Function function = functions[i % functions.length];
+            List<TestComponent> list = byFunction.computeIfAbsent(function, f -> new ArrayList<>());
+            list.add(new TestComponent(function, list.size() + 1));
+        }
+        return ComponentIndex.of(byFunction);
+    }
+
+    private static final class TestComponent implements ComponentSpec {
+        private final Function function;
+        private final int number;
+
+        private TestComponent(Function function, int number) {
+            this.function = function;
+            this.number = number;
+        }
+
+        @Override
+        public String getState() {
+            return null;
+        }
+
+        @Override
+        public void setState(String state) {
+        }
+
+        @Override
+        public Function getFunction() {
+            return this.function;
+        }
+
+        @Override
+        public int getNumber() {
+            return this.number;
+        }
+
+        @Override
+        public String getDescription() {
+            return this.function + " " + this.number;
+        }
+
+        @Override
+        public String getType() {
+            return null;
+        }
+    }
+}